@@ -0,0 +1,65 @@
+package com.srinjaydg.enderbrary.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Writing one catalog page the way the JSON message converter does, with Spring's default {@code ObjectMapper}.
+ * {@code size} covers the default page and the largest one clients ask for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectWriter writer;
+    private PageResponse<BookResponse> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        List<BookResponse> content = IntStream.range(0, size)
+                .mapToObj(i -> BookResponse.builder()
+                        .id(UUID.randomUUID())
+                        .title("The Book of Things, Volume " + i)
+                        .author("Author " + i % 7)
+                        .description("A long enough description to look like the ones people actually write for a listing. ".repeat(3))
+                        .category("Fiction")
+                        .coverUrl("https://cdn.example.com/covers/" + i + ".jpg")
+                        .isAvailable(true)
+                        .isArchived(false)
+                        .ownerName("Alice")
+                        .ownerEmail("alice@example.com")
+                        .ownerImageUrl("https://cdn.example.com/avatars/alice.png")
+                        .build())
+                .toList();
+        page = PageResponse.<BookResponse>builder()
+                .content(content)
+                .page(0)
+                .size(size)
+                .totalElements(1_250)
+                .totalPages((1_250 + size - 1) / size)
+                .first(true)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,118 @@
+package com.srinjaydg.enderbrary.email;
+
+import com.srinjaydg.enderbrary.email.templates.BorrowRequestEmail;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cost of producing one borrow request email, from variables to serialized MIME bytes.
+ * {@code legacy} is the per-message code EmailService used before {@link EmailRenderer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private Session session;
+    private SpringTemplateEngine cachedEngine;
+    private SpringTemplateEngine uncachedEngine;
+    private EmailRenderer renderer;
+    private BorrowRequestEmail model;
+
+    @Setup
+    public void setUp() {
+        session = Session.getInstance(new Properties());
+        cachedEngine = templateEngine(true);
+        uncachedEngine = templateEngine(false);
+        renderer = new EmailRenderer(cachedEngine);
+        renderer.precompileTemplates();
+        model = new BorrowRequestEmail("Alice", "Bob", "The Hobbit", "http://localhost:3000/borrow/incoming-requests");
+    }
+
+    @Benchmark
+    public MimeMessage legacy() throws Exception {
+        return legacyRender(cachedEngine);
+    }
+
+    /** Same as {@link #legacy()} but re-parsing the template, as with {@code spring.thymeleaf.cache=false}. */
+    @Benchmark
+    public MimeMessage legacyUncachedTemplate() throws Exception {
+        return legacyRender(uncachedEngine);
+    }
+
+    @Benchmark
+    public MimeMessage pipeline() throws Exception {
+        MimeMessage mimeMessage = new MimeMessage(session);
+        renderer.render(mimeMessage, model, "alice@example.com");
+        return serialize(mimeMessage);
+    }
+
+    private MimeMessage legacyRender(SpringTemplateEngine templateEngine) throws Exception {
+        MimeMessage mimeMessage = new MimeMessage(session);
+        MimeMessageHelper helper = new MimeMessageHelper(
+                mimeMessage,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                UTF_8.name()
+        );
+
+        Map<String, Object> props = new HashMap<>();
+        props.put("lenderName", model.lenderName());
+        props.put("borrowerName", model.borrowerName());
+        props.put("bookTitle", model.bookTitle());
+        props.put("manageRequestUrl", model.manageRequestUrl());
+
+        Context context = new Context();
+        context.setVariables(props);
+
+        helper.setFrom(new InternetAddress("info@enderbrary.srinjaydg.in", "Enderbrary"));
+        helper.setTo("alice@example.com");
+        helper.setReplyTo("noreply@enderbrary.srinjaydg.in");
+        helper.setSubject("New Borrow Request for " + model.bookTitle());
+
+        String htmlContent = templateEngine.process("borrow_request", context);
+        helper.setText(htmlContent, true);
+
+        ClassPathResource logo = new ClassPathResource("static/logo.png");
+        helper.addInline("logoImage", logo);
+        return serialize(mimeMessage);
+    }
+
+    // Writing the message is what actually reads the inline logo, as Transport.sendMessage would
+    private static MimeMessage serialize(MimeMessage mimeMessage) throws Exception {
+        mimeMessage.saveChanges();
+        mimeMessage.writeTo(OutputStream.nullOutputStream());
+        return mimeMessage;
+    }
+
+    private static SpringTemplateEngine templateEngine(boolean cacheable) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(UTF_8.name());
+        resolver.setCacheable(cacheable);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
@@ -0,0 +1,72 @@
+package com.srinjaydg.enderbrary.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link JWTFilter} pays to validate one access token, and what login pays to sign one.
+ * {@code legacy} is the old path: three independent parses, each with a freshly built parser and key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "jsCZ3Tcbq-2eost-tUEKjD_b2M949QcrO57OcagTVis=";
+
+    private JWTService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JWTService(SECRET, 3_600_000, 31_536_000_000L);
+        user = User.withUsername("alice@example.com").password("unused").authorities("USER").build();
+        token = jwtService.generateAccessToken(Map.of("user_email", "alice@example.com"), user);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String email = legacyExtractClaim(token, "user_email", String.class);
+        return legacyExtractClaim(token, "user_email", String.class).equals(email)
+                && !legacyExtractClaim(token, "exp", Date.class).before(new Date());
+    }
+
+    @Benchmark
+    public String extractClaim() {
+        return jwtService.extractClaim(token, "user_email", String.class);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(Map.of("user_email", "alice@example.com"), user);
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return jwtService.parseToken(token)
+                .map(claims -> claims.get("user_email", String.class))
+                .orElse(null);
+    }
+
+    private static <T> T legacyExtractClaim(String token, String claimKey, Class<T> claimType) {
+        Claims claims = Jwts
+                .parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return claims.get(claimKey, claimType);
+    }
+}
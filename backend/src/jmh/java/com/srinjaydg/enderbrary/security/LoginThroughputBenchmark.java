@@ -0,0 +1,81 @@
+package com.srinjaydg.enderbrary.security;
+
+import com.srinjaydg.enderbrary.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A login storm (16 threads checking passwords) running next to catalog reads (2 threads of plain CPU work).
+ * {@code direct} hashes on the request thread as before; {@code bounded} goes through {@link BoundedPasswordEncoder}
+ * with half the CPUs. Compare the catalog-read throughput of the two groups: that is what the pool protects.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private PasswordEncoder direct;
+    private BoundedPasswordEncoder bounded;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        direct = new BCryptPasswordEncoder(10);
+        bounded = new BoundedPasswordEncoder(
+                direct,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                64,
+                Duration.ofSeconds(30),
+                new SimpleMeterRegistry()
+        );
+        hash = direct.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.destroy();
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(16)
+    public boolean directLogin() {
+        return direct.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(2)
+    public void directCatalogRead() {
+        Blackhole.consumeCPU(10_000);
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(16)
+    public boolean boundedLogin() {
+        try {
+            return bounded.matches(PASSWORD, hash);
+        } catch (PasswordHashingBusyException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(2)
+    public void boundedCatalogRead() {
+        Blackhole.consumeCPU(10_000);
+    }
+}
@@ -0,0 +1,122 @@
+package com.srinjaydg.enderbrary.user.mappers;
+
+import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
+import com.srinjaydg.enderbrary.book.mappers.BookMapper;
+import com.srinjaydg.enderbrary.book.mappers.BorrowRequestMapper;
+import com.srinjaydg.enderbrary.book.models.Book;
+import com.srinjaydg.enderbrary.book.models.BorrowRequest;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.book.response.BorrowRequestResponse;
+import com.srinjaydg.enderbrary.user.dto.UserResponse;
+import com.srinjaydg.enderbrary.user.models.Role;
+import com.srinjaydg.enderbrary.user.models.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping on an already loaded graph: one book, one borrow request, and a profile
+ * with {@code books} posted books plus as many lent and borrowed requests, each pointing at owners and borrowers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"5", "50"})
+    private int books;
+
+    private BookMapper bookMapper;
+    private BorrowRequestMapper borrowRequestMapper;
+    private UserMapper userMapper;
+    private User profile;
+    private Book book;
+    private BorrowRequest borrowRequest;
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapper();
+        borrowRequestMapper = new BorrowRequestMapper();
+        userMapper = new UserMapper(bookMapper, borrowRequestMapper);
+
+        profile = user("Alice");
+        User other = user("Bob");
+        for (int i = 0; i < books; i++) {
+            profile.getPostedBooks().add(book(profile, i));
+            BorrowRequest lent = borrowRequest(book(profile, books + i), other, profile);
+            profile.getLentBooks().add(lent);
+            other.getBorrowedBooks().add(lent);
+            BorrowRequest borrowed = borrowRequest(book(other, 2 * books + i), profile, other);
+            profile.getBorrowedBooks().add(borrowed);
+            other.getLentBooks().add(borrowed);
+        }
+        book = profile.getPostedBooks().getFirst();
+        borrowRequest = profile.getBorrowedBooks().getFirst();
+    }
+
+    @Benchmark
+    public BookResponse toBookResponse() {
+        return bookMapper.toBookResponse(book);
+    }
+
+    @Benchmark
+    public BorrowRequestResponse toBorrowRequestResponse() {
+        return borrowRequestMapper.toResponse(borrowRequest);
+    }
+
+    @Benchmark
+    public UserResponse toUserResponse() {
+        return userMapper.toUserResponse(profile);
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .email(name.toLowerCase() + "@example.com")
+                .imageUrl("https://cdn.example.com/avatars/" + name.toLowerCase() + ".png")
+                .accountLocked(false)
+                .enabled(true)
+                .roles(List.of(Role.builder().id(1L).name("USER").build()))
+                .postedBooks(new ArrayList<>())
+                .lentBooks(new ArrayList<>())
+                .borrowedBooks(new ArrayList<>())
+                .build();
+    }
+
+    private static Book book(User owner, int index) {
+        return Book.builder()
+                .id(UUID.randomUUID())
+                .title("The Book of Things, Volume " + index)
+                .author("Author " + index % 7)
+                .description("A long enough description to look like the ones people actually write for a listing. ".repeat(3))
+                .category("Fiction")
+                .coverUrl("https://cdn.example.com/covers/" + index + ".jpg")
+                .isAvailable(index % 3 != 0)
+                .isArchived(false)
+                .owner(owner)
+                .version(0L)
+                .build();
+    }
+
+    private static BorrowRequest borrowRequest(Book book, User borrower, User lender) {
+        LocalDateTime requested = LocalDateTime.of(2025, 3, 1, 10, 0);
+        return BorrowRequest.builder()
+                .id(UUID.randomUUID())
+                .book(book)
+                .borrower(borrower)
+                .lender(lender)
+                .requestDate(requested)
+                .dueDate(requested.plusWeeks(2))
+                .status(BorrowStatus.APPROVED)
+                .version(0L)
+                .build();
+    }
+}
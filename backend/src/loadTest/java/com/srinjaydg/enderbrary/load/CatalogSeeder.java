@@ -0,0 +1,127 @@
+package com.srinjaydg.enderbrary.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bulk-loads users, a catalog and borrow history straight through JDBC, far faster than the API could.
+ * Emails carry a per-run prefix so repeated runs against the same Postgres do not collide.
+ * The first {@code lendable} books are available and reserved for borrow scenarios, one client at a time each.
+ */
+final class CatalogSeeder {
+
+    static final List<String> WORDS = List.of(
+            "silent", "crimson", "hidden", "broken", "golden", "distant", "forgotten", "winter",
+            "river", "garden", "kingdom", "library", "empire", "orchard", "harbor", "lantern");
+    private static final List<String> FIRST_NAMES = List.of("Ada", "Brook", "Cyrus", "Dana", "Elio", "Farah", "Gwen", "Hiro");
+    private static final List<String> LAST_NAMES = List.of("Abbott", "Barros", "Chen", "Duarte", "Ekwueme", "Fischer", "Grant", "Haddad");
+    private static final int BATCH_SIZE = 1_000;
+
+    record Lendable(UUID bookId, int lender) {
+    }
+
+    record Seeded(List<String> emails, Queue<Lendable> lendable) {
+    }
+
+    private CatalogSeeder() {
+    }
+
+    static Seeded seed(JdbcTemplate jdbcTemplate, int users, int books, int historyPerUser, int lendable) {
+        Random random = new Random(42);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp seededAt = Timestamp.valueOf(now);
+
+        UUID[] userIds = new UUID[users];
+        List<String> emails = new ArrayList<>(users);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userIds[i] = UUID.randomUUID();
+            String name = FIRST_NAMES.get(i % FIRST_NAMES.size()) + " " + LAST_NAMES.get(i / FIRST_NAMES.size() % LAST_NAMES.size());
+            String email = "load-" + run + "-" + i + "@example.com";
+            emails.add(email);
+            rows.add(new Object[]{userIds[i], name, email, "https://cdn.example.com/avatars/" + i + ".png"});
+        }
+        insert(jdbcTemplate, """
+                INSERT INTO users (id, name, email, image_url, account_locked, enabled)
+                VALUES (?, ?, ?, ?, false, true)
+                """, rows);
+        Long roleId = jdbcTemplate.queryForObject("SELECT id FROM role WHERE name = 'USER'", Long.class);
+        insert(jdbcTemplate, "INSERT INTO users_roles (users_id, roles_id) VALUES (?, ?)",
+                Arrays.stream(userIds).map(id -> new Object[]{id, roleId}).toList());
+
+        UUID[] bookIds = new UUID[books];
+        int[] owners = new int[books];
+        Queue<Lendable> lendableBooks = new ConcurrentLinkedQueue<>();
+        rows = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            bookIds[i] = UUID.randomUUID();
+            owners[i] = random.nextInt(users);
+            boolean reserved = i < lendable;
+            if (reserved) lendableBooks.add(new Lendable(bookIds[i], owners[i]));
+            String title = capitalize(WORDS.get(random.nextInt(8))) + " " + capitalize(WORDS.get(8 + random.nextInt(8)))
+                    + (i % 5 == 0 ? "" : ", Book " + (i % 12 + 1));
+            String author = FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size())) + " " + LAST_NAMES.get(random.nextInt(LAST_NAMES.size()));
+            rows.add(new Object[]{
+                    bookIds[i], title, author,
+                    "A story about " + WORDS.get(random.nextInt(WORDS.size())) + " things, told slowly.",
+                    i % 3 == 0 ? "Fiction" : i % 3 == 1 ? "History" : "Science",
+                    "https://cdn.example.com/covers/" + i + ".jpg",
+                    reserved || random.nextInt(10) != 0,
+                    userIds[owners[i]], seededAt
+            });
+            if (rows.size() == BATCH_SIZE) {
+                insertBooks(jdbcTemplate, rows);
+                rows = new ArrayList<>();
+            }
+        }
+        insertBooks(jdbcTemplate, rows);
+
+        // Returned loans only, so history never makes a catalog book unavailable
+        rows = new ArrayList<>();
+        for (int borrower = 0; borrower < users; borrower++) {
+            for (int j = 0; j < historyPerUser; j++) {
+                int book = lendable + random.nextInt(books - lendable);
+                if (owners[book] == borrower) continue;
+                LocalDateTime requested = now.minusDays(30 + random.nextInt(300));
+                rows.add(new Object[]{
+                        UUID.randomUUID(), bookIds[book], userIds[borrower], userIds[owners[book]],
+                        Timestamp.valueOf(requested), Timestamp.valueOf(requested.plusDays(14)), seededAt
+                });
+            }
+        }
+        insert(jdbcTemplate, """
+                INSERT INTO borrow_request (id, book_id, borrower_id, lender_id, request_date, due_date, status, version, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, 'RETURNED', 0, ?)
+                """, rows);
+
+        return new Seeded(List.copyOf(emails), lendableBooks);
+    }
+
+    private static void insertBooks(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        insert(jdbcTemplate, """
+                INSERT INTO book (id, title, author, description, category, cover_url, is_available, is_archived, owner_id, version, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, false, ?, 0, ?)
+                """, rows);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private static String capitalize(String word) {
+        return word.substring(0, 1).toUpperCase(Locale.ROOT) + word.substring(1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.srinjaydg.enderbrary.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srinjaydg.enderbrary.security.JWTService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seeds a catalog, then runs {@link LibraryWorkload} against the whole app (controllers, security, JPA, outbox
+ * and SMTP to an {@link SmtpSink}) and prints req/s, p50/p99 and SQL statements per request for every route.
+ * Offline by default; sizes are tunable with {@code -Dloadtest.concurrency}, {@code loadtest.seconds},
+ * {@code loadtest.warmup-seconds}, {@code loadtest.users}, {@code loadtest.books} and {@code loadtest.history-per-user}.
+ */
+class EndToEndLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+    private static final int USERS = Integer.getInteger("loadtest.users", 500);
+    private static final int BOOKS = Integer.getInteger("loadtest.books", 20_000);
+    private static final int HISTORY_PER_USER = Integer.getInteger("loadtest.history-per-user", 4);
+    private static final Duration OUTBOX_DRAIN = Duration.ofSeconds(60);
+
+    @Test
+    void mixedWorkload() throws Exception {
+        try (SmtpSink smtp = new SmtpSink()) {
+            try (ConfigurableApplicationContext app = LoadTestApp.start("end-to-end", LoadTestApp.smtp(smtp))) {
+                JdbcTemplate jdbcTemplate = app.getBean(JdbcTemplate.class);
+                CatalogSeeder.Seeded seeded = CatalogSeeder.seed(jdbcTemplate, USERS, BOOKS, HISTORY_PER_USER, CONCURRENCY * 2);
+                JWTService jwtService = app.getBean(JWTService.class);
+                List<String> tokens = seeded.emails().stream()
+                        .map(email -> jwtService.generateAccessToken(
+                                Map.of("user_email", email),
+                                User.withUsername(email).password("unused").authorities("USER").build()))
+                        .toList();
+
+                int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                LibraryWorkload workload = new LibraryWorkload(URI.create("http://localhost:" + port),
+                        tokens, seeded, app.getBean(ObjectMapper.class), LoadTestApp.postgres());
+                MeterRegistry meterRegistry = app.getBean(MeterRegistry.class);
+
+                try (HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build()) {
+                    LoadDriver.run(client, workload.mix(), CONCURRENCY, WARMUP);
+                    long emailsBefore = smtp.received();
+                    Map<String, SqlStatementStats.Totals> sqlBefore = SqlStatementStats.snapshot(meterRegistry);
+                    List<LoadDriver.Row> rows = LoadDriver.run(client, workload.mix(), CONCURRENCY, DURATION);
+                    Map<String, Double> sqlPerRequest = SqlStatementStats.perRequest(sqlBefore, SqlStatementStats.snapshot(meterRegistry));
+
+                    long queued = awaitOutboxDrained(jdbcTemplate);
+                    long dead = count(jdbcTemplate, "SELECT count(*) FROM email_outbox WHERE status = 'DEAD'");
+
+                    System.out.println();
+                    System.out.printf("Mixed workload on %s: %d clients, %ds, %d users, %d books%n",
+                            LoadTestApp.databaseName(), CONCURRENCY, DURATION.toSeconds(), USERS, BOOKS);
+                    System.out.print(LoadDriver.table(rows, sqlPerRequest));
+                    System.out.printf("Emails: %d delivered to the SMTP sink after warmup, %d still queued, %d dead%n",
+                            smtp.received() - emailsBefore, queued, dead);
+
+                    for (LoadDriver.Row row : rows) {
+                        assertEquals(0, row.errors(), row.scenario() + " " + row.route() + " had failed requests");
+                    }
+                    assertEquals(0, dead, "outbox messages failed to send");
+                }
+            }
+        }
+    }
+
+    private static long awaitOutboxDrained(JdbcTemplate jdbcTemplate) throws InterruptedException {
+        long deadline = System.nanoTime() + OUTBOX_DRAIN.toNanos();
+        long queued;
+        while ((queued = count(jdbcTemplate, "SELECT count(*) FROM email_outbox WHERE status IN ('PENDING', 'SENDING')")) > 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(500);
+        }
+        return queued;
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+}
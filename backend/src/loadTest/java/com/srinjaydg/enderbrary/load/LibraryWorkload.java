@@ -0,0 +1,127 @@
+package com.srinjaydg.enderbrary.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srinjaydg.enderbrary.common.CursorCodec;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The request mix of a busy evening: mostly anonymous catalog browsing and search, signed-in users looking at
+ * their profile and loans, and full borrow round trips (request, approve, return, confirm) between two users.
+ */
+final class LibraryWorkload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final List<String> tokens;
+    private final CatalogSeeder.Seeded seeded;
+    private final ObjectMapper objectMapper;
+    private final boolean fullTextSearch;
+
+    LibraryWorkload(URI base, List<String> tokens, CatalogSeeder.Seeded seeded, ObjectMapper objectMapper, boolean fullTextSearch) {
+        this.base = base;
+        this.tokens = tokens;
+        this.seeded = seeded;
+        this.objectMapper = objectMapper;
+        this.fullTextSearch = fullTextSearch;
+    }
+
+    List<LoadDriver.Weighted> mix() {
+        return List.of(
+                new LoadDriver.Weighted("browse", 45, this::browse),
+                new LoadDriver.Weighted("search", 20, this::search),
+                new LoadDriver.Weighted("profile", 15, this::profile),
+                new LoadDriver.Weighted("borrow", 20, this::borrow)
+        );
+    }
+
+    /**
+     * Two catalog pages from a random position, then one book's details (which needs a signed-in user).
+     */
+    private void browse(LoadDriver.Session session) throws Exception {
+        String cursor = CursorCodec.encode(UUID.randomUUID().toString());
+        JsonNode page = json(session.send("GET /api/v1/books/cursor",
+                get("/api/v1/books/cursor?size=20&cursor=" + encode(cursor), null)));
+        if (!page.path("last").asBoolean()) {
+            page = json(session.send("GET /api/v1/books/cursor",
+                    get("/api/v1/books/cursor?size=20&cursor=" + encode(page.path("nextCursor").asText()), null)));
+        }
+        JsonNode content = page.path("content");
+        if (content.isEmpty()) return;
+        String bookId = content.get(ThreadLocalRandom.current().nextInt(content.size())).path("id").asText();
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        session.send("GET /api/v1/books/{bookId}", get("/api/v1/books/" + bookId, token));
+    }
+
+    /**
+     * Typeahead on a prefix, then the ranked search where the database supports it.
+     */
+    private void search(LoadDriver.Session session) throws Exception {
+        String word = CatalogSeeder.WORDS.get(ThreadLocalRandom.current().nextInt(CatalogSeeder.WORDS.size()));
+        session.send("GET /api/v1/books/suggest", get("/api/v1/books/suggest?keyword=" + word.substring(0, 3), null));
+        if (fullTextSearch) {
+            session.send("GET /api/v1/books/search/cursor", get("/api/v1/books/search/cursor?size=20&keyword=" + word, null));
+        }
+    }
+
+    private void profile(LoadDriver.Session session) throws Exception {
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        session.send("GET /api/v1/users/me", get("/api/v1/users/me", token));
+        session.send("GET /api/v1/borrow/my-requests/cursor", get("/api/v1/borrow/my-requests/cursor?size=20", token));
+        session.send("GET /api/v1/books/me", get("/api/v1/books/me", token));
+    }
+
+    /**
+     * A whole loan on one of the reserved books. The book goes back in the pool only if every step succeeded,
+     * so a failure never leaves another client holding a book that is still lent out.
+     */
+    private void borrow(LoadDriver.Session session) throws Exception {
+        CatalogSeeder.Lendable book = seeded.lendable().poll();
+        if (book == null) {
+            browse(session);
+            return;
+        }
+        String lender = tokens.get(book.lender());
+        String borrower = tokens.get((book.lender() + 1 + ThreadLocalRandom.current().nextInt(tokens.size() - 1)) % tokens.size());
+
+        String requestId = json(session.send("POST /api/v1/borrow/{bookId}",
+                send("POST", "/api/v1/borrow/" + book.bookId(), borrower))).path("id").asText();
+        session.send("PATCH /api/v1/borrow/{requestId}/approve", send("PATCH", "/api/v1/borrow/" + requestId + "/approve", lender));
+        session.send("PATCH /api/v1/borrow/{requestId}/return", send("PATCH", "/api/v1/borrow/" + requestId + "/return", borrower));
+        session.send("PATCH /api/v1/borrow/{requestId}/complete-return",
+                send("PATCH", "/api/v1/borrow/" + requestId + "/complete-return", lender));
+        seeded.lendable().add(book);
+    }
+
+    private HttpRequest get(String path, String token) {
+        return send("GET", path, token);
+    }
+
+    private HttpRequest send(String method, String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder.build();
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, UTF_8);
+    }
+}
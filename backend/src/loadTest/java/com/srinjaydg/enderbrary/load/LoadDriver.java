@@ -0,0 +1,184 @@
+package com.srinjaydg.enderbrary.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} virtual-thread clients each pick a scenario by weight, run it,
+ * and start the next one as soon as it finishes. Every request a scenario sends is timed under its route
+ * ({@code "GET /api/v1/books/{bookId}"}), which is also how the server tags its SQL statement counts.
+ */
+final class LoadDriver {
+
+    @FunctionalInterface
+    interface Scenario {
+        void run(Session session) throws Exception;
+    }
+
+    record Weighted(String name, int weight, Scenario scenario) {
+    }
+
+    record Row(String scenario, String route, long requests, long errors, double requestsPerSecond,
+               double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    // Only the first few failures are logged; the rest are counted and summarised once the run ends
+    private static final int MAX_REPORTED_FAILURES = 5;
+
+    private LoadDriver() {
+    }
+
+    static List<Row> run(HttpClient client, List<Weighted> mix, int concurrency, Duration duration) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(Weighted::weight).sum();
+        long stopAt = System.nanoTime() + duration.toNanos();
+        AtomicInteger failures = new AtomicInteger();
+        List<Session> sessions = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+
+        for (int i = 0; i < concurrency; i++) {
+            Session session = new Session(client);
+            sessions.add(session);
+            clients.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < stopAt) {
+                    Weighted pick = pick(mix, totalWeight);
+                    session.scenario = pick.name();
+                    try {
+                        pick.scenario().run(session);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        if (failures.incrementAndGet() <= MAX_REPORTED_FAILURES) {
+                            log.warn("{} failed: {}", pick.name(), e.toString());
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread worker : clients) {
+            worker.join();
+        }
+        if (failures.get() > MAX_REPORTED_FAILURES) {
+            log.warn("{} scenario runs failed; only the first {} were logged", failures.get(), MAX_REPORTED_FAILURES);
+        }
+
+        Map<Key, Samples> merged = new LinkedHashMap<>();
+        for (Session session : sessions) {
+            session.samples.forEach((key, samples) -> merged.computeIfAbsent(key, k -> new Samples()).addAll(samples));
+        }
+        double seconds = duration.toNanos() / 1e9;
+        return merged.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(Key::scenario).thenComparing(Key::route)))
+                .map(entry -> entry.getValue().toRow(entry.getKey(), seconds))
+                .toList();
+    }
+
+    static String table(List<Row> rows, Map<String, Double> sqlPerRoute) {
+        StringBuilder table = new StringBuilder("%-9s %-48s %9s %7s %9s %9s %9s %9s %8s%n".formatted(
+                "scenario", "route", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "sql/req"));
+        for (Row row : rows) {
+            Double sql = sqlPerRoute.get(row.route());
+            table.append("%-9s %-48s %9d %7d %9.1f %9.2f %9.2f %9.2f %8s%n".formatted(
+                    row.scenario(), row.route(), row.requests(), row.errors(), row.requestsPerSecond(),
+                    row.p50Millis(), row.p99Millis(), row.maxMillis(), sql == null ? "-" : "%.1f".formatted(sql)));
+        }
+        return table.toString();
+    }
+
+    private static Weighted pick(List<Weighted> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Weighted weighted : mix) {
+            roll -= weighted.weight();
+            if (roll < 0) return weighted;
+        }
+        return mix.getLast();
+    }
+
+    /**
+     * One client's view of the run. Not thread-safe: each client thread owns its session.
+     */
+    static final class Session {
+
+        private final HttpClient client;
+        private final Map<Key, Samples> samples = new HashMap<>();
+        private String scenario;
+
+        private Session(HttpClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Sends the request and records its latency under {@code route}. A 4xx/5xx answer counts as an error
+         * and aborts the scenario, since later steps usually depend on this one.
+         */
+        HttpResponse<String> send(String route, HttpRequest request) throws IOException, InterruptedException {
+            Samples routeSamples = samples.computeIfAbsent(new Key(scenario, route), key -> new Samples());
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                routeSamples.add(System.nanoTime() - start, true);
+                throw e;
+            }
+            boolean failed = response.statusCode() >= 400;
+            routeSamples.add(System.nanoTime() - start, failed);
+            if (failed) {
+                throw new IOException(route + " answered " + response.statusCode() + ": " + response.body());
+            }
+            return response;
+        }
+    }
+
+    private record Key(String scenario, String route) {
+    }
+
+    private static final class Samples {
+        private long[] values = new long[256];
+        private int size;
+        private long errors;
+
+        void add(long nanos, boolean failed) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+            if (failed) errors++;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i], false);
+            }
+            errors += other.errors;
+        }
+
+        Row toRow(Key key, double seconds) {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new Row(key.scenario(), key.route(), size, errors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
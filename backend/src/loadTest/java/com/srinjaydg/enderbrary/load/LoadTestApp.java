@@ -0,0 +1,65 @@
+package com.srinjaydg.enderbrary.load;
+
+import com.srinjaydg.enderbrary.EnderbraryApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the whole application on a random port under the {@code loadtest} profile. By default the database is
+ * an in-memory H2 in PostgreSQL mode with the schema generated by Hibernate; pass {@code -Dloadtest.jdbc-url} (plus
+ * {@code loadtest.jdbc-username}/{@code loadtest.jdbc-password}) to run against a local Postgres migrated by Flyway.
+ */
+final class LoadTestApp {
+
+    private static final String JDBC_URL = System.getProperty("loadtest.jdbc-url");
+
+    private LoadTestApp() {
+    }
+
+    static boolean postgres() {
+        return JDBC_URL != null && JDBC_URL.startsWith("jdbc:postgresql:");
+    }
+
+    static String databaseName() {
+        return postgres() ? "PostgreSQL" : "H2 (PostgreSQL mode)";
+    }
+
+    static ConfigurableApplicationContext start(String name, Map<String, Object> overrides) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("spring.profiles.active", "loadtest");
+        if (postgres()) {
+            settings.put("spring.datasource.url", JDBC_URL);
+            settings.put("spring.datasource.username", System.getProperty("loadtest.jdbc-username", "postgres"));
+            settings.put("spring.datasource.password", System.getProperty("loadtest.jdbc-password", ""));
+            settings.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            settings.put("spring.jpa.database", "postgresql");
+            settings.put("spring.jpa.hibernate.ddl-auto", "none");
+            settings.put("spring.flyway.enabled", true);
+        } else {
+            // The H2 dialect rather than the PostgreSQL one, so the outbox's SKIP LOCKED claim parses
+            settings.put("spring.datasource.url", "jdbc:h2:mem:" + name
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1");
+            settings.put("spring.jpa.database", "h2");
+            settings.put("spring.jpa.hibernate.ddl-auto", "create");
+            settings.put("spring.flyway.enabled", false);
+            settings.put("application.schema.drift-check.enabled", false);
+        }
+        settings.putAll(overrides);
+
+        List<String> args = new ArrayList<>();
+        settings.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(EnderbraryApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Points the mail sender at an {@link SmtpSink}; the profile already turns off AUTH and STARTTLS.
+     */
+    static Map<String, Object> smtp(SmtpSink sink) {
+        return Map.of("spring.mail.port", sink.port());
+    }
+}
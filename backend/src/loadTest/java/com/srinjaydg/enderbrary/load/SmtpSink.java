@@ -0,0 +1,88 @@
+package com.srinjaydg.enderbrary.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Just enough SMTP for Jakarta Mail without AUTH or TLS: accepts every message, counts it and drops it.
+ * Stands in for the real relay so the outbox workers do their full render-and-send path offline.
+ */
+final class SmtpSink implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final AtomicLong received = new AtomicLong();
+
+    SmtpSink() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("smtp-sink").start(this::accept);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    long received() {
+        return received.get();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), US_ASCII)) {
+            reply(out, "220 localhost ESMTP sink");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String verb = line.length() < 4 ? line : line.substring(0, 4);
+                switch (verb.toUpperCase(Locale.ROOT)) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard the message body
+                        }
+                        received.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // The client dropped the connection; nothing to clean up
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+}
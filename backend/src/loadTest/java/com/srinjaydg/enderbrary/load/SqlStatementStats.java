@@ -0,0 +1,45 @@
+package com.srinjaydg.enderbrary.load;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the server's {@code enderbrary.http.sql.statements} summaries, keyed by the same
+ * {@code "METHOD /uri/{template}"} route the {@link LoadDriver} uses, so each report row gets its SQL count.
+ */
+final class SqlStatementStats {
+
+    record Totals(long requests, double statements) {
+        Totals plus(Totals other) {
+            return new Totals(requests + other.requests, statements + other.statements);
+        }
+    }
+
+    private SqlStatementStats() {
+    }
+
+    static Map<String, Totals> snapshot(MeterRegistry registry) {
+        Map<String, Totals> totals = new HashMap<>();
+        for (DistributionSummary summary : registry.find("enderbrary.http.sql.statements").summaries()) {
+            String route = summary.getId().getTag("method") + " " + summary.getId().getTag("uri");
+            totals.merge(route, new Totals(summary.count(), summary.totalAmount()), Totals::plus);
+        }
+        return totals;
+    }
+
+    /**
+     * Average statements per request between two snapshots, so warmup traffic does not count.
+     */
+    static Map<String, Double> perRequest(Map<String, Totals> before, Map<String, Totals> after) {
+        Map<String, Double> perRequest = new HashMap<>();
+        after.forEach((route, end) -> {
+            Totals start = before.getOrDefault(route, new Totals(0, 0));
+            long requests = end.requests() - start.requests();
+            if (requests > 0) perRequest.put(route, (end.statements() - start.statements()) / requests);
+        });
+        return perRequest;
+    }
+}
@@ -0,0 +1,66 @@
+package com.srinjaydg.enderbrary.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the app twice, once on Tomcat's platform-thread pool and once with {@code spring.threads.virtual.enabled},
+ * and drives the same JDBC-backed catalog endpoint with more concurrent clients than Tomcat has threads.
+ * The in-memory database keeps each request short, so the gap widens against a real database over the network.
+ * Tune with {@code -Dloadtest.concurrency}, {@code -Dloadtest.seconds} and {@code -Dloadtest.warmup-seconds}.
+ */
+class ThreadModeLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.seconds", 15));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+    private static final int BOOKS = 2_000;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<LoadDriver.Row> rows = new ArrayList<>();
+        rows.addAll(runMode(false));
+        rows.addAll(runMode(true));
+
+        System.out.println();
+        System.out.println("Catalog cursor page on " + LoadTestApp.databaseName() + ", "
+                + CONCURRENCY + " concurrent clients, " + DURATION.toSeconds() + "s");
+        System.out.print(LoadDriver.table(rows, Map.of()));
+
+        for (LoadDriver.Row row : rows) {
+            assertEquals(0, row.errors(), row.scenario() + " had failed requests");
+        }
+    }
+
+    private List<LoadDriver.Row> runMode(boolean virtualThreads) throws InterruptedException {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext app = LoadTestApp.start("threads-" + mode,
+                Map.of("spring.threads.virtual.enabled", virtualThreads))) {
+            CatalogSeeder.seed(app.getBean(JdbcTemplate.class), 50, BOOKS, 0, 0);
+            int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/books/cursor?size=20");
+            List<LoadDriver.Weighted> mix = List.of(new LoadDriver.Weighted(mode, 1, session ->
+                    session.send("GET /api/v1/books/cursor", HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build())));
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build()) {
+                LoadDriver.run(client, mix, CONCURRENCY, WARMUP);
+                return LoadDriver.run(client, mix, CONCURRENCY, DURATION);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.srinjaydg.enderbrary.auth;
+
+import com.srinjaydg.enderbrary.user.repositories.TokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes activation tokens that expired more than {@code retention} ago, in chunks so that each
+ * delete is a short transaction. Expired tokens are kept for a while because presenting one still
+ * triggers a fresh activation email.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivationTokenPurger {
+
+    private final TokenRepository tokenRepository;
+
+    @Value("${application.security.activation-token.retention:P1D}")
+    private Duration retention;
+
+    @Value("${application.security.activation-token.purge-chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${application.security.activation-token.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = tokenRepository.deleteExpired(cutoff, chunkSize);
+            purged += deleted;
+        } while (deleted == chunkSize);
+        log.info("Purged {} expired activation tokens", purged);
+    }
+}
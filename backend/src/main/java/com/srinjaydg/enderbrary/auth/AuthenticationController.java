@@ -2,7 +2,6 @@ package com.srinjaydg.enderbrary.auth;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.http.HttpStatus;
@@ -49,7 +48,7 @@ public class AuthenticationController {
     )
     public ResponseEntity<Void> register(
             @RequestBody AuthenticationRequest request
-    ) throws BadRequestException, MessagingException {
+    ) throws BadRequestException {
         authenticationService.register(request);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
@@ -57,7 +56,7 @@ public class AuthenticationController {
     @PostMapping("/activate")
     @Operation(
             summary = "Activate User Account",
-            description = "Activates a user account using the provided activation code. This is typically used after registration.",
+            description = "Activates a user account using the provided activation code. This is typically used after registration. Passing the email as well makes the lookup exact.",
             responses = {
                     @io.swagger.v3.oas.annotations.responses.ApiResponse(
                             responseCode = "200",
@@ -66,13 +65,18 @@ public class AuthenticationController {
                     @io.swagger.v3.oas.annotations.responses.ApiResponse(
                             responseCode = "400",
                             description = "Bad Request - Invalid activation token"
+                    ),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                            responseCode = "409",
+                            description = "Conflict - Activation code is pending for more than one account, email is required"
                     )
             }
     )
     public ResponseEntity<AuthenticationResponse> activateUser(
-            @RequestParam(name = "token") String token
-    ) throws MessagingException {
-        return ResponseEntity.ok(authenticationService.activateAccount (token));
+            @RequestParam(name = "token") String token,
+            @RequestParam(name = "email", required = false) String email
+    ) {
+        return ResponseEntity.ok(authenticationService.activateAccount (token, email));
     }
 
 
@@ -84,7 +88,7 @@ public class AuthenticationController {
     )
     public ResponseEntity<AuthenticationResponse> oauth2Login(
             @RequestBody AuthenticationRequest request
-    ) throws MessagingException {
+    ) {
         AuthenticationResponse response = authenticationService.oauth2Login(request);
         if(response == null){
             return ResponseEntity.status(HttpStatus.CREATED).build();
@@ -1,19 +1,21 @@
 package com.srinjaydg.enderbrary.auth;
 
 import com.srinjaydg.enderbrary.email.EmailService;
-import com.srinjaydg.enderbrary.email.EmailTemplatename;
+import com.srinjaydg.enderbrary.exceptions.AmbiguousActivationCodeException;
 import com.srinjaydg.enderbrary.exceptions.ExistingEmailConflictException;
 import com.srinjaydg.enderbrary.security.JWTService;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
 import com.srinjaydg.enderbrary.user.models.Token;
 import com.srinjaydg.enderbrary.user.models.User;
 import com.srinjaydg.enderbrary.user.repositories.RoleRepository;
 import com.srinjaydg.enderbrary.user.repositories.TokenRepository;
 import com.srinjaydg.enderbrary.user.repositories.UserRepository;
-import jakarta.mail.MessagingException;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -27,6 +29,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 @Service
+@Observed(name = "enderbrary.service")
 @RequiredArgsConstructor
 public class AuthenticationService {
 
@@ -41,16 +44,12 @@ public class AuthenticationService {
     @Value ("${application.mailing.frontend.activation-url}")
     private String activationUrl;
 
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()-_=+[]{}|;:,.<>?";
-    private static final int PASSWORD_LENGTH = 16;
-
     public AuthenticationResponse login(AuthenticationRequest authenticationRequest) {
-        User user = userRepository.findByEmail(authenticationRequest.email())
-                .orElseThrow(() -> new NoSuchElementException ("User not found"));
         return getAuthenticationResponse(authenticationRequest);
     }
 
-    public void register(AuthenticationRequest authenticationRequest) throws BadRequestException, MessagingException {
+    @Transactional
+    public void register(AuthenticationRequest authenticationRequest) throws BadRequestException {
         var userRole = roleRepository.findByName("USER")
                 .orElseThrow (() -> new IllegalStateException ("ROLE USER was not initialized"));
 
@@ -74,12 +73,20 @@ public class AuthenticationService {
         sendActivationEmail(user);
     }
 
-    public void sendActivationEmail(User user) throws MessagingException {
+    @Transactional
+    public void sendActivationEmail(Authentication connectedUser) {
+        AuthenticatedUser principal = (AuthenticatedUser) connectedUser.getPrincipal();
+        User user = userRepository.findById(principal.id())
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
+        sendActivationEmail(user);
+    }
+
+    @Transactional
+    public void sendActivationEmail(User user) {
         var newToken = generateAndSaveActivationToken (user);
         emailService.sendActivationMail(
                 user.getEmail(),
                 user.getName(),
-                EmailTemplatename.ACTIVATE_ACCOUNT,
                 activationUrl,
                 newToken,
                 "Activate your account"
@@ -87,6 +94,8 @@ public class AuthenticationService {
     }
 
     private String generateAndSaveActivationToken(User user) {
+        // Only the latest code stays valid, so resends do not pile up rows for the same user
+        tokenRepository.deletePendingByUserId (user.getId ());
         String generatedToken = generateActivationCode();
 
         var token = Token.builder ()
@@ -110,9 +119,8 @@ public class AuthenticationService {
         return codeBuilder.toString ();
     }
 
-    public AuthenticationResponse activateAccount(String token) throws MessagingException {
-        Token savedToken = tokenRepository.findByToken (token)
-                .orElseThrow (() -> new NoSuchElementException ("Token not found"));
+    public AuthenticationResponse activateAccount(String token, String email) {
+        Token savedToken = findPendingToken (token, email);
 
         if(LocalDateTime.now ().isAfter (savedToken.getExpiresAt ())){
             sendActivationEmail (savedToken.getUser ());
@@ -128,6 +136,25 @@ public class AuthenticationService {
         return buildJwtResponse(user);
     }
 
+    /**
+     * With an email the lookup is exact; a bare code is accepted only while no other account
+     * has the same code pending.
+     */
+    private Token findPendingToken(String token, String email) {
+        if (email != null && !email.isBlank ()) {
+            return tokenRepository.findPendingByEmailAndToken (email, token)
+                    .orElseThrow (() -> new NoSuchElementException ("Token not found"));
+        }
+        List<Token> matches = tokenRepository.findPendingByToken (token, Limit.of (2));
+        if (matches.isEmpty ()) {
+            throw new NoSuchElementException ("Token not found");
+        }
+        if (matches.size () > 1) {
+            throw new AmbiguousActivationCodeException ("Activation code is not unique, please provide your email as well");
+        }
+        return matches.getFirst ();
+    }
+
     private AuthenticationResponse getAuthenticationResponse(AuthenticationRequest authenticationRequest) {
         var auth = authenticationManager.authenticate (
                 new UsernamePasswordAuthenticationToken(
@@ -139,24 +166,18 @@ public class AuthenticationService {
         return buildJwtResponse(userVar);
     }
 
-    public AuthenticationResponse oauth2Login(AuthenticationRequest request) throws MessagingException {
+    @Transactional
+    public AuthenticationResponse oauth2Login(AuthenticationRequest request) {
         User user = userRepository.findByEmail(request.email())
                 .orElse(null);
         if (user != null) {
             return buildJwtResponse(user);
         }
-        // If user does not exist, register them
-            AuthenticationRequest requestWithPassword = AuthenticationRequest.builder ()
-                    .email(request.email())
-                    .name(request.name())
-                    .image (request.image ())
-                    .password(generateSecurePassword())
-                    .build ();
+        // If user does not exist, register them. They sign in through the provider only, so no password is stored
             User newUser = User.builder()
-                    .name(requestWithPassword.name())
-                    .email(requestWithPassword.email())
-                    .password(passwordEncoder.encode(requestWithPassword.password()))
-                    .imageUrl(requestWithPassword.image())
+                    .name(request.name())
+                    .email(request.email())
+                    .imageUrl(request.image())
                     .accountLocked (false)
                     .enabled (false)
                     .roles(List.of(roleRepository.findByName("USER")
@@ -167,18 +188,6 @@ public class AuthenticationService {
             return null;
     }
 
-    private static String generateSecurePassword() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder password = new StringBuilder(PASSWORD_LENGTH);
-
-        for (int i = 0; i < PASSWORD_LENGTH; i++) {
-            int index = random.nextInt(CHARACTERS.length());
-            password.append(CHARACTERS.charAt(index));
-        }
-
-        return password.toString();
-    }
-
     private AuthenticationResponse buildJwtResponse(User user){
         var claims = new HashMap<String, Object>();
         claims.put ("user_email", user.getUsername ());
@@ -200,8 +209,8 @@ public class AuthenticationService {
 
     @Transactional
     public AuthenticationResponse refreshToken(Authentication connectedUser) {
-        User principal = (User) connectedUser.getPrincipal();
-        User user = userRepository.findByEmail(principal.getEmail())
+        AuthenticatedUser principal = (AuthenticatedUser) connectedUser.getPrincipal();
+        User user = userRepository.findById(principal.id())
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
         return buildJwtResponse(user);
     }
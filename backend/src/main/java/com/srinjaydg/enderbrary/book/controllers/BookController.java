@@ -1,16 +1,28 @@
 package com.srinjaydg.enderbrary.book.controllers;
 
 import com.srinjaydg.enderbrary.book.request.BookRequest;
+import com.srinjaydg.enderbrary.book.response.BookImportResponse;
 import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.book.response.BookSuggestionResponse;
+import com.srinjaydg.enderbrary.book.services.BookImportService;
 import com.srinjaydg.enderbrary.book.services.BookService;
+import com.srinjaydg.enderbrary.common.CursorPageResponse;
+import com.srinjaydg.enderbrary.common.ETags;
 import com.srinjaydg.enderbrary.common.PageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +33,7 @@ import java.util.UUID;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
     @PostMapping
     @Operation(summary = "Add a Book")
@@ -28,13 +41,45 @@ public class BookController {
         return ResponseEntity.ok(bookService.addBook(request, connectedUser));
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk Import Books", description = "Imports books from a CSV (with a header row) or NDJSON body. Invalid rows are skipped and reported.")
+    public ResponseEntity<BookImportResponse> importBooks(InputStream body,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                          Authentication connectedUser) throws IOException {
+        return ResponseEntity.ok(bookImportService.importBooks(body, contentType, connectedUser));
+    }
+
     @GetMapping
     @Operation(summary = "List Available Books")
     public ResponseEntity<PageResponse<BookResponse>> getAllAvailableBooks(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest
+    ) {
+        String eTag = bookService.getAllBooksETag(page, size);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(ETags.REVALIDATE).build();
+        }
+        ETags.Tagged<PageResponse<BookResponse>> books = bookService.getAllBooks(page, size, eTag);
+        return ResponseEntity.ok().eTag(books.eTag()).cacheControl(ETags.REVALIDATE).body(books.body());
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "List Available Books (cursor)", description = "Keyset pagination; pass nextCursor back as cursor.")
+    public ResponseEntity<CursorPageResponse<BookResponse>> getAvailableBooksAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeCount
     ) {
-        return ResponseEntity.ok(bookService.getAllBooks(page, size));
+        return ResponseEntity.ok(bookService.getBooksAfter(cursor, size, includeCount));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export Catalog", description = "Streams every book as newline-delimited JSON.")
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookService::exportCatalog);
     }
 
     @GetMapping("/me")
@@ -76,10 +121,31 @@ public class BookController {
         return ResponseEntity.ok(bookService.searchBooks(keyword, page, size));
     }
 
+    @GetMapping("/search/cursor")
+    @Operation(summary = "Search Books (cursor)", description = "Ranked search with keyset pagination; pass nextCursor back as cursor.")
+    public ResponseEntity<CursorPageResponse<BookResponse>> searchBooksAfter(@RequestParam String keyword,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(defaultValue = "10") int size,
+                                                                            @RequestParam(defaultValue = "false") boolean includeCount) {
+        return ResponseEntity.ok(bookService.searchBooksAfter(keyword, cursor, size, includeCount));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest Books", description = "Typeahead suggestions from titles and authors of available books.")
+    public ResponseEntity<List<BookSuggestionResponse>> suggestBooks(@RequestParam String keyword,
+                                                                     @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(bookService.suggest(keyword, limit));
+    }
+
     @GetMapping("/{bookId}")
     @Operation(summary = "Get Book by ID")
-    public ResponseEntity<BookResponse> getBookById(@PathVariable UUID bookId) {
-        return ResponseEntity.ok(bookService.getBookDetails(bookId));
+    public ResponseEntity<BookResponse> getBookById(@PathVariable UUID bookId, WebRequest webRequest) {
+        String eTag = bookService.getBookETag(bookId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(ETags.REVALIDATE).build();
+        }
+        ETags.Tagged<BookResponse> book = bookService.getBookDetails(bookId, eTag);
+        return ResponseEntity.ok().eTag(book.eTag()).cacheControl(ETags.REVALIDATE).body(book.body());
     }
 
     @PutMapping("/{bookId}")
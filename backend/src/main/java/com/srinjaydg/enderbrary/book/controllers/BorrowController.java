@@ -1,16 +1,19 @@
 package com.srinjaydg.enderbrary.book.controllers;
 
+import com.srinjaydg.enderbrary.book.request.BorrowRequestFilter;
 import com.srinjaydg.enderbrary.book.response.BorrowRequestResponse;
 import com.srinjaydg.enderbrary.book.services.BorrowService;
+import com.srinjaydg.enderbrary.common.CursorPageResponse;
+import com.srinjaydg.enderbrary.common.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,7 +30,7 @@ public class BorrowController {
     public ResponseEntity<BorrowRequestResponse> createBorrowRequest(
             @PathVariable UUID bookId,
             Authentication authentication
-    ) throws MessagingException, UnsupportedEncodingException {
+    ) {
         return ResponseEntity.ok(borrowService.create(bookId, authentication));
     }
 
@@ -36,7 +39,7 @@ public class BorrowController {
     public ResponseEntity<BorrowRequestResponse> approveRequest(
             @PathVariable UUID requestId,
             Authentication authentication
-    ) throws MessagingException, UnsupportedEncodingException {
+    ) {
         return ResponseEntity.ok(borrowService.approve(requestId, authentication));
     }
 
@@ -45,14 +48,18 @@ public class BorrowController {
     public ResponseEntity<BorrowRequestResponse> rejectRequest(
             @PathVariable UUID requestId,
             Authentication authentication
-    ) throws MessagingException, UnsupportedEncodingException {
+    ) {
         return ResponseEntity.ok(borrowService.reject(requestId, authentication));
     }
 
     @GetMapping("/{requestId}")
     @Operation(summary = "Get Borrow Request by ID")
-    public ResponseEntity<BorrowRequestResponse> getBorrowRequest(@PathVariable UUID requestId) {
-        return ResponseEntity.ok(borrowService.getBorrowRequest(requestId));
+    public ResponseEntity<BorrowRequestResponse> getBorrowRequest(@PathVariable UUID requestId, WebRequest webRequest) {
+        String eTag = borrowService.getBorrowRequestETag(requestId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(ETags.REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE).body(borrowService.getBorrowRequest(requestId));
     }
 
     @GetMapping("/my-requests")
@@ -76,6 +83,43 @@ public class BorrowController {
         return ResponseEntity.ok(borrowService.getAllBorrowRequestsForBook(bookId, authentication));
     }
 
+    @GetMapping("/my-requests/cursor")
+    @Operation(summary = "Page My Borrow Requests", description = "Newest first, filterable by status and request date; pass nextCursor back as cursor.")
+    public ResponseEntity<CursorPageResponse<BorrowRequestResponse>> pageMyBorrowRequests(
+            Authentication authentication,
+            BorrowRequestFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeCount
+    ) {
+        return ResponseEntity.ok(borrowService.getBorrowRequestsForUser(authentication, filter, cursor, size, includeCount));
+    }
+
+    @GetMapping("/incoming-requests/cursor")
+    @Operation(summary = "Page Borrow Requests Made to Me", description = "Newest first, filterable by status and request date; pass nextCursor back as cursor.")
+    public ResponseEntity<CursorPageResponse<BorrowRequestResponse>> pageBorrowRequestsToMe(
+            Authentication authentication,
+            BorrowRequestFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeCount
+    ) {
+        return ResponseEntity.ok(borrowService.getBorrowRequestsToUser(authentication, filter, cursor, size, includeCount));
+    }
+
+    @GetMapping("/book/{bookId}/cursor")
+    @Operation(summary = "Page Borrow Requests for a Book", description = "Newest first, filterable by status and request date; pass nextCursor back as cursor.")
+    public ResponseEntity<CursorPageResponse<BorrowRequestResponse>> pageRequestsForBook(
+            @PathVariable UUID bookId,
+            Authentication authentication,
+            BorrowRequestFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeCount
+    ) {
+        return ResponseEntity.ok(borrowService.getBorrowRequestsForBook(bookId, authentication, filter, cursor, size, includeCount));
+    }
+
     @GetMapping("/my-requests/pending")
     @Operation(summary = "Get My Pending Borrow Requests")
     public ResponseEntity<List<BorrowRequestResponse>> getPendingRequests(Authentication authentication) {
@@ -99,7 +143,7 @@ public class BorrowController {
     public ResponseEntity<BorrowRequestResponse> returnBook(
             @PathVariable UUID requestId,
             Authentication authentication
-    ) throws MessagingException, UnsupportedEncodingException {
+    ) {
         return ResponseEntity.ok(borrowService.returnBook(requestId, authentication));
     }
 
@@ -108,7 +152,7 @@ public class BorrowController {
     public ResponseEntity<BorrowRequestResponse> completeReturn(
             @PathVariable UUID requestId,
             Authentication authentication
-    ) throws MessagingException, UnsupportedEncodingException {
+    ) {
         return ResponseEntity.ok(borrowService.completeReturn(requestId, authentication));
     }
 }
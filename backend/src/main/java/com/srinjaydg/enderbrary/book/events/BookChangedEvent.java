@@ -0,0 +1,9 @@
+package com.srinjaydg.enderbrary.book.events;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a book's details or availability change.
+ * {@code bookId} is null when many books changed at once, e.g. after a bulk import.
+ */
+public record BookChangedEvent(UUID bookId) {}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -33,8 +34,16 @@ public class BorrowRequest {
 
     private LocalDateTime requestDate;
     private LocalDateTime dueDate;
+    private LocalDateTime overdueAt;        // first time the reminder job saw it past due
+    private LocalDateTime reminderSentAt;
 
     @Enumerated(EnumType.STRING)
     private BorrowStatus status;
-}
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -1,28 +1,181 @@
 package com.srinjaydg.enderbrary.book.repositories;
 
 import com.srinjaydg.enderbrary.book.models.Book;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.common.ETags;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, UUID> {
     List<Book> findByOwnerId(UUID ownerId);
-    Page<Book> findByIsAvailableTrueAndIsArchivedFalse(Pageable pageable);
 
-    Optional<Book> findByIdAndOwnerId(UUID id, UUID ownerId);
+    // Listing queries project straight into BookResponse so the owner comes from the same join
+    // instead of one lazy load (plus its eager roles) per row.
+    @Query(value = """
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM Book b LEFT JOIN b.owner o
+            WHERE b.isAvailable = true AND b.isArchived = false
+            ORDER BY b.id
+    """, countQuery = """
+            SELECT COUNT(b) FROM Book b
+            WHERE b.isAvailable = true AND b.isArchived = false
+    """)
+    Page<BookResponse> findAvailableResponses(Pageable pageable);
 
-    List<Book> findByOwnerIdAndIsArchivedTrue(UUID id);
+    // Same rows as findAvailableResponses, reduced to the columns the page ETag is built from
+    @Query(value = """
+            SELECT b.id AS id, b.version AS version, o.updatedAt AS ownerUpdatedAt
+            FROM Book b LEFT JOIN b.owner o
+            WHERE b.isAvailable = true AND b.isArchived = false
+            ORDER BY b.id
+    """, countQuery = """
+            SELECT COUNT(b) FROM Book b
+            WHERE b.isAvailable = true AND b.isArchived = false
+    """)
+    Page<ETags.VersionedRow> findAvailableVersions(Pageable pageable);
+
+    @Query("""
+            SELECT b.id AS id, b.version AS version, o.updatedAt AS ownerUpdatedAt
+            FROM Book b LEFT JOIN b.owner o
+            WHERE b.id = :id
+    """)
+    Optional<ETags.VersionedRow> findVersionById(UUID id);
+
+    /**
+     * Flips availability only if it still has the expected value; returns 0 when a concurrent
+     * transaction got there first. The row lock taken by the UPDATE serializes contenders.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Book b SET b.isAvailable = :available, b.version = b.version + 1, b.updatedAt = LOCAL DATETIME
+            WHERE b.id = :id AND b.isAvailable = :expected
+    """)
+    int updateAvailability(UUID id, boolean expected, boolean available);
+
+    // Keyset pagination over the available catalog, ordered by id; no COUNT query
+    @Query("""
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM Book b LEFT JOIN b.owner o
+            WHERE b.isAvailable = true AND b.isArchived = false AND b.id > :afterId
+            ORDER BY b.id
+    """)
+    List<BookResponse> findAvailableResponsesAfter(UUID afterId, Limit limit);
+
+    long countByIsAvailableTrueAndIsArchivedFalse();
 
+    // Forward-only cursor for exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
     @Query("""
-            SELECT b FROM Book b
-            WHERE LOWER(b.title) LIKE CONCAT('%', LOWER(:lowerCase), '%')
-            OR LOWER(b.author) LIKE CONCAT('%', LOWER(:lowerCase), '%')
-            AND b.isAvailable = true AND b.isArchived = false
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM Book b LEFT JOIN b.owner o
     """)
-    Page<Book> searchByTitleOrAuthor(String lowerCase, Pageable pageable);
+    Stream<BookResponse> streamAllResponses();
+
+    @Query(value = """
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM Book b JOIN b.owner o
+            WHERE o.id = :ownerId
+    """, countQuery = """
+            SELECT COUNT(b) FROM Book b WHERE b.owner.id = :ownerId
+    """)
+    Page<BookResponse> findResponsesByOwnerId(UUID ownerId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM Book b LEFT JOIN b.owner o
+            WHERE b.id IN :ids
+    """)
+    List<BookResponse> findResponsesByIdIn(Collection<UUID> ids);
+
+    Optional<Book> findByIdAndOwnerId(UUID id, UUID ownerId);
+
+    boolean existsByIdAndOwnerId(UUID id, UUID ownerId);
+
+    @Query("SELECT b.id FROM Book b WHERE b.owner.id = :ownerId")
+    List<UUID> findIdsByOwnerId(UUID ownerId);
+
+    List<Book> findByOwnerIdAndIsArchivedTrue(UUID id);
+
+    /**
+     * Full-text search over title (weight A) and author (weight B) of the available catalog,
+     * ranked by ts_rank. The vector expression must stay identical to the one behind
+     * idx_book_search (see V3__book_search_indexes.sql) or Postgres falls back to a scan.
+     *
+     * @param query a to_tsquery expression, e.g. {@code hobb:* & tolk:*}
+     */
+    @Query(value = """
+            SELECT b.id FROM book b
+            WHERE b.is_available = true AND b.is_archived = false
+            AND (setweight(to_tsvector('simple', coalesce(b.title, '')), 'A')
+                 || setweight(to_tsvector('simple', coalesce(b.author, '')), 'B')) @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(setweight(to_tsvector('simple', coalesce(b.title, '')), 'A')
+                 || setweight(to_tsvector('simple', coalesce(b.author, '')), 'B'), to_tsquery('simple', :query)) DESC, b.id
+    """, countQuery = """
+            SELECT count(*) FROM book b
+            WHERE b.is_available = true AND b.is_archived = false
+            AND (setweight(to_tsvector('simple', coalesce(b.title, '')), 'A')
+                 || setweight(to_tsvector('simple', coalesce(b.author, '')), 'B')) @@ to_tsquery('simple', :query)
+    """, nativeQuery = true)
+    Page<UUID> searchIdsByRank(String query, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #searchIdsByRank}: the hits ranked strictly after ({@code rank}, {@code afterId}).
+     */
+    @Query(value = """
+            SELECT r.id AS id, r.rank AS rank FROM (
+                SELECT b.id AS id, ts_rank(setweight(to_tsvector('simple', coalesce(b.title, '')), 'A')
+                     || setweight(to_tsvector('simple', coalesce(b.author, '')), 'B'), to_tsquery('simple', :query)) AS rank
+                FROM book b
+                WHERE b.is_available = true AND b.is_archived = false
+                AND (setweight(to_tsvector('simple', coalesce(b.title, '')), 'A')
+                     || setweight(to_tsvector('simple', coalesce(b.author, '')), 'B')) @@ to_tsquery('simple', :query)
+            ) r
+            WHERE r.rank < :rank OR (r.rank = :rank AND r.id > :afterId)
+            ORDER BY r.rank DESC, r.id
+            LIMIT :limit
+    """, nativeQuery = true)
+    List<BookSearchHit> searchHitsAfter(String query, float rank, UUID afterId, int limit);
+
+    /**
+     * Typeahead over titles and authors of the available catalog. No count query is issued.
+     * {@code pattern} is either a prefix ({@code "hob%"}) served by the text_pattern_ops indexes,
+     * or an infix ({@code "%hob%"}) served by the pg_trgm indexes; prefix matches are ranked first.
+     */
+    @Query(value = """
+            SELECT s.value AS value, s.field AS field FROM (
+                SELECT b.title AS value, 'TITLE' AS field FROM book b
+                WHERE b.is_available = true AND b.is_archived = false
+                AND LOWER(b.title) LIKE :pattern ESCAPE '\\'
+                UNION
+                SELECT b.author AS value, 'AUTHOR' AS field FROM book b
+                WHERE b.is_available = true AND b.is_archived = false
+                AND LOWER(b.author) LIKE :pattern ESCAPE '\\'
+            ) s
+            ORDER BY (LOWER(s.value) LIKE :prefix ESCAPE '\\') DESC, LENGTH(s.value), s.value
+            LIMIT :limit
+    """, nativeQuery = true)
+    List<BookSuggestionView> suggest(String pattern, String prefix, int limit);
 }
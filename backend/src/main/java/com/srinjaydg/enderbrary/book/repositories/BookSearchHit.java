@@ -0,0 +1,8 @@
+package com.srinjaydg.enderbrary.book.repositories;
+
+import java.util.UUID;
+
+public interface BookSearchHit {
+    UUID getId();
+    Float getRank();
+}
@@ -0,0 +1,6 @@
+package com.srinjaydg.enderbrary.book.repositories;
+
+public interface BookSuggestionView {
+    String getValue();
+    String getField();
+}
@@ -2,10 +2,22 @@ package com.srinjaydg.enderbrary.book.repositories;
 
 import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
 import com.srinjaydg.enderbrary.book.models.BorrowRequest;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.book.response.BorrowRequestResponse;
 import io.micrometer.common.KeyValues;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BorrowRequestRepository extends JpaRepository<BorrowRequest, UUID> {
@@ -14,7 +26,176 @@ public interface BorrowRequestRepository extends JpaRepository<BorrowRequest, UU
 
     List<BorrowRequest> findByBookIdAndLenderId(UUID bookId, UUID id);
 
+    // Everything a BorrowRequestResponse is mapped from: the request, its book and both users
+    @Query("""
+            SELECT r.version AS version, b.version AS bookVersion,
+                l.updatedAt AS lenderUpdatedAt, u.updatedAt AS borrowerUpdatedAt
+            FROM BorrowRequest r JOIN r.book b JOIN r.lender l JOIN r.borrower u
+            WHERE r.id = :id
+    """)
+    Optional<BorrowRequestVersions> findVersionsById(UUID id);
+
     List<BorrowRequest> findByBorrowerIdAndStatus(UUID id, BorrowStatus borrowStatus);
 
     List<BorrowRequest> findByLenderIdAndStatus(UUID id, BorrowStatus borrowStatus);
+
+    // Keyset slices ordered by (requestDate desc, id desc) with the filters pushed into the query;
+    // book, lender and borrower come from the same joins, so a page is a single statement.
+    @Query("""
+            SELECT new com.srinjaydg.enderbrary.book.response.BorrowRequestResponse(
+                r.id, b.id, b.title, l.name, u.name, u.email, u.imageUrl,
+                r.requestDate, r.dueDate, CAST(r.status AS String))
+            FROM BorrowRequest r JOIN r.book b JOIN r.lender l JOIN r.borrower u
+            WHERE u.id = :borrowerId
+            AND r.status IN :statuses AND r.requestDate >= :from AND r.requestDate < :to
+            AND (r.requestDate < :afterDate OR (r.requestDate = :afterDate AND r.id < :afterId))
+            ORDER BY r.requestDate DESC, r.id DESC
+    """)
+    List<BorrowRequestResponse> findBorrowerSlice(UUID borrowerId, Collection<BorrowStatus> statuses,
+                                                  LocalDateTime from, LocalDateTime to,
+                                                  LocalDateTime afterDate, UUID afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.srinjaydg.enderbrary.book.response.BorrowRequestResponse(
+                r.id, b.id, b.title, l.name, u.name, u.email, u.imageUrl,
+                r.requestDate, r.dueDate, CAST(r.status AS String))
+            FROM BorrowRequest r JOIN r.book b JOIN r.lender l JOIN r.borrower u
+            WHERE l.id = :lenderId
+            AND r.status IN :statuses AND r.requestDate >= :from AND r.requestDate < :to
+            AND (r.requestDate < :afterDate OR (r.requestDate = :afterDate AND r.id < :afterId))
+            ORDER BY r.requestDate DESC, r.id DESC
+    """)
+    List<BorrowRequestResponse> findLenderSlice(UUID lenderId, Collection<BorrowStatus> statuses,
+                                                LocalDateTime from, LocalDateTime to,
+                                                LocalDateTime afterDate, UUID afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.srinjaydg.enderbrary.book.response.BorrowRequestResponse(
+                r.id, b.id, b.title, l.name, u.name, u.email, u.imageUrl,
+                r.requestDate, r.dueDate, CAST(r.status AS String))
+            FROM BorrowRequest r JOIN r.book b JOIN r.lender l JOIN r.borrower u
+            WHERE b.id = :bookId AND l.id = :lenderId
+            AND r.status IN :statuses AND r.requestDate >= :from AND r.requestDate < :to
+            AND (r.requestDate < :afterDate OR (r.requestDate = :afterDate AND r.id < :afterId))
+            ORDER BY r.requestDate DESC, r.id DESC
+    """)
+    List<BorrowRequestResponse> findBookSlice(UUID bookId, UUID lenderId, Collection<BorrowStatus> statuses,
+                                              LocalDateTime from, LocalDateTime to,
+                                              LocalDateTime afterDate, UUID afterId, Limit limit);
+
+    @Query("""
+            SELECT COUNT(r) FROM BorrowRequest r WHERE r.borrower.id = :borrowerId
+            AND r.status IN :statuses AND r.requestDate >= :from AND r.requestDate < :to
+    """)
+    long countBorrowerFiltered(UUID borrowerId, Collection<BorrowStatus> statuses, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            SELECT COUNT(r) FROM BorrowRequest r WHERE r.lender.id = :lenderId
+            AND r.status IN :statuses AND r.requestDate >= :from AND r.requestDate < :to
+    """)
+    long countLenderFiltered(UUID lenderId, Collection<BorrowStatus> statuses, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            SELECT COUNT(r) FROM BorrowRequest r WHERE r.book.id = :bookId AND r.lender.id = :lenderId
+            AND r.status IN :statuses AND r.requestDate >= :from AND r.requestDate < :to
+    """)
+    long countBookFiltered(UUID bookId, UUID lenderId, Collection<BorrowStatus> statuses, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Locks the other requests for the book that are still in {@code status}, so nobody else can move them
+     * before the caller updates exactly these rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM BorrowRequest r WHERE r.book.id = :bookId AND r.status = :status AND r.id <> :exceptId")
+    List<BorrowRequest> lockOthersForBook(UUID bookId, BorrowStatus status, UUID exceptId);
+
+    /**
+     * Moves the given requests to {@code to} only where they are still in one of the {@code from} states.
+     * Returns the number of rows that actually changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE BorrowRequest r SET r.status = :to, r.version = r.version + 1, r.updatedAt = LOCAL DATETIME
+            WHERE r.id IN :ids AND r.status IN :from
+    """)
+    int updateStatus(Collection<UUID> ids, Collection<BorrowStatus> from, BorrowStatus to);
+
+    /**
+     * Next chunk of requests in {@code status} due before {@code horizon} that still need attention:
+     * never reminded, reminded before {@code remindedBefore}, or past {@code now} without being marked overdue.
+     * Walks idx_borrow_request_status_due in (dueDate, id) order, so only the due range is ever read.
+     */
+    @Query("""
+            SELECT r.id AS id, r.dueDate AS dueDate, r.borrower.id AS borrowerId
+            FROM BorrowRequest r
+            WHERE r.status = :status AND r.dueDate < :horizon
+            AND (r.dueDate > :afterDate OR (r.dueDate = :afterDate AND r.id > :afterId))
+            AND (r.reminderSentAt IS NULL OR r.reminderSentAt < :remindedBefore
+                OR (r.overdueAt IS NULL AND r.dueDate < :now))
+            ORDER BY r.dueDate, r.id
+    """)
+    List<DueBorrowRequestRow> findDueAfter(BorrowStatus status, LocalDateTime horizon, LocalDateTime now,
+                                           LocalDateTime remindedBefore, LocalDateTime afterDate, UUID afterId,
+                                           Limit limit);
+
+    @Query("""
+            SELECT r.id AS id, b.title AS bookTitle, l.name AS lenderName, u.name AS borrowerName,
+                u.email AS borrowerEmail, r.dueDate AS dueDate, r.overdueAt AS overdueAt,
+                r.reminderSentAt AS reminderSentAt
+            FROM BorrowRequest r JOIN r.book b JOIN r.lender l JOIN r.borrower u
+            WHERE u.id = :borrowerId AND r.status = :status AND r.dueDate < :horizon
+            ORDER BY r.dueDate, r.id
+    """)
+    List<DueReminderItemView> findDueItemsForBorrower(UUID borrowerId, BorrowStatus status, LocalDateTime horizon);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE BorrowRequest r SET r.overdueAt = :now
+            WHERE r.id IN :ids AND r.overdueAt IS NULL AND r.dueDate < :now
+    """)
+    int markOverdue(Collection<UUID> ids, LocalDateTime now);
+
+    /**
+     * Stamps the reminder time only on rows nobody else reminded since {@code remindedBefore};
+     * a zero result means another run already sent this digest.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE BorrowRequest r SET r.reminderSentAt = :now
+            WHERE r.id IN :ids AND (r.reminderSentAt IS NULL OR r.reminderSentAt < :remindedBefore)
+    """)
+    int markReminded(Collection<UUID> ids, LocalDateTime now, LocalDateTime remindedBefore);
+
+    @Query(value = """
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM BorrowRequest r JOIN r.book b LEFT JOIN b.owner o
+            WHERE r.lender.id = :lenderId
+    """, countQuery = """
+            SELECT COUNT(r) FROM BorrowRequest r WHERE r.lender.id = :lenderId
+    """)
+    Page<BookResponse> findLentBookResponses(UUID lenderId, Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.srinjaydg.enderbrary.book.response.BookResponse(
+                b.id, b.title, b.author, b.description, b.category, b.coverUrl,
+                b.isAvailable, b.isArchived, o.name, o.email, o.imageUrl)
+            FROM BorrowRequest r JOIN r.book b LEFT JOIN b.owner o
+            WHERE r.borrower.id = :borrowerId
+    """, countQuery = """
+            SELECT COUNT(r) FROM BorrowRequest r WHERE r.borrower.id = :borrowerId
+    """)
+    Page<BookResponse> findBorrowedBookResponses(UUID borrowerId, Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.srinjaydg.enderbrary.book.response.BorrowRequestResponse(
+                r.id, b.id, b.title, l.name, u.name, u.email, u.imageUrl,
+                r.requestDate, r.dueDate, CAST(r.status AS String))
+            FROM BorrowRequest r JOIN r.book b JOIN r.lender l JOIN r.borrower u
+            WHERE u.id = :borrowerId
+    """, countQuery = """
+            SELECT COUNT(r) FROM BorrowRequest r WHERE r.borrower.id = :borrowerId
+    """)
+    Page<BorrowRequestResponse> findResponsesByBorrowerId(UUID borrowerId, Pageable pageable);
 }
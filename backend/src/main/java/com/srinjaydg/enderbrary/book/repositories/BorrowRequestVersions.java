@@ -0,0 +1,10 @@
+package com.srinjaydg.enderbrary.book.repositories;
+
+import java.time.LocalDateTime;
+
+public interface BorrowRequestVersions {
+    Long getVersion();
+    Long getBookVersion();
+    LocalDateTime getLenderUpdatedAt();
+    LocalDateTime getBorrowerUpdatedAt();
+}
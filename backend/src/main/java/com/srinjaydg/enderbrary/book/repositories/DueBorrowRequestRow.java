@@ -0,0 +1,10 @@
+package com.srinjaydg.enderbrary.book.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface DueBorrowRequestRow {
+    UUID getId();
+    LocalDateTime getDueDate();
+    UUID getBorrowerId();
+}
@@ -0,0 +1,15 @@
+package com.srinjaydg.enderbrary.book.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface DueReminderItemView {
+    UUID getId();
+    String getBookTitle();
+    String getLenderName();
+    String getBorrowerName();
+    String getBorrowerEmail();
+    LocalDateTime getDueDate();
+    LocalDateTime getOverdueAt();
+    LocalDateTime getReminderSentAt();
+}
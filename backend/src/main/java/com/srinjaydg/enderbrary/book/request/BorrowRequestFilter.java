@@ -0,0 +1,17 @@
+package com.srinjaydg.enderbrary.book.request;
+
+import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional filters for borrow request listings, bound from query parameters.
+ * {@code from} is inclusive and {@code to} exclusive, both on the request date.
+ */
+public record BorrowRequestFilter(
+        List<BorrowStatus> status,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+) {}
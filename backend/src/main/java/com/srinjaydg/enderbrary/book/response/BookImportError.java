@@ -0,0 +1,6 @@
+package com.srinjaydg.enderbrary.book.response;
+
+public record BookImportError(
+        long line,
+        String message
+) {}
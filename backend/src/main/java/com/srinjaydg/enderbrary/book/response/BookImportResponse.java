@@ -0,0 +1,14 @@
+package com.srinjaydg.enderbrary.book.response;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record BookImportResponse(
+        long imported,
+        long rejected,
+        long elapsedMillis,
+        List<BookImportError> errors,
+        boolean errorsTruncated
+) {}
@@ -0,0 +1,6 @@
+package com.srinjaydg.enderbrary.book.response;
+
+public record BookSuggestionResponse(
+        String value,
+        String field        // TITLE or AUTHOR
+) {}
@@ -0,0 +1,39 @@
+package com.srinjaydg.enderbrary.book.services;
+
+import com.srinjaydg.enderbrary.book.events.BookChangedEvent;
+import com.srinjaydg.enderbrary.configuration.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached book reads once the change that published the {@link BookChangedEvent} has committed,
+ * or right away when it was published outside a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Cache details = cacheManager.getCache(CacheConfig.BOOK_DETAILS);
+        if (details != null) {
+            if (event.bookId() == null) {
+                details.clear();
+            } else {
+                details.evict(event.bookId());
+            }
+        }
+        Cache pages = cacheManager.getCache(CacheConfig.BOOK_PAGES);
+        if (pages != null) {
+            pages.clear();
+        }
+        log.debug("Evicted cached reads for book {}", event.bookId());
+    }
+}
@@ -0,0 +1,291 @@
+package com.srinjaydg.enderbrary.book.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srinjaydg.enderbrary.book.events.BookChangedEvent;
+import com.srinjaydg.enderbrary.book.request.BookRequest;
+import com.srinjaydg.enderbrary.book.response.BookImportError;
+import com.srinjaydg.enderbrary.book.response.BookImportResponse;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Bulk book import from CSV or NDJSON. The body is read row by row, each row is validated on its own,
+ * and valid rows are inserted with JDBC batch statements, one transaction per batch. A bad row is
+ * reported and skipped; it does not abort the rest of the import.
+ */
+@Service
+@Observed(name = "enderbrary.service")
+@Slf4j
+public class BookImportService {
+
+    private static final String INSERT_BOOK = """
+            INSERT INTO book (id, title, author, description, category, cover_url, is_available, is_archived, owner_id,
+                              version, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, true, false, ?, 0, CURRENT_TIMESTAMP)
+            """;
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BookImportService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${application.books.import.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public BookImportResponse importBooks(InputStream body, MediaType contentType, Authentication connectedUser) throws IOException {
+        AuthenticatedUser owner = (AuthenticatedUser) connectedUser.getPrincipal();
+        boolean csv = MediaType.parseMediaType("text/csv").isCompatibleWith(contentType);
+        if (!csv && !MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+
+        ImportRun run = new ImportRun(owner.id());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, UTF_8))) {
+            if (csv) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        }
+        run.flush();
+        if (run.imported > 0) {
+            eventPublisher.publishEvent(new BookChangedEvent(null));
+        }
+
+        long elapsedMillis = (System.nanoTime() - run.startedAt) / 1_000_000;
+        log.info("Imported {} books for user {} ({} rejected) in {} ms, {} rows/s",
+                run.imported, owner.id(), run.rejected, elapsedMillis,
+                elapsedMillis == 0 ? run.imported : run.imported * 1000 / elapsedMillis);
+        return BookImportResponse.builder()
+                .imported(run.imported)
+                .rejected(run.rejected)
+                .elapsedMillis(elapsedMillis)
+                .errors(run.errors)
+                .errorsTruncated(run.rejected > run.errors.size())
+                .build();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            try {
+                run.accept(lineNumber, objectMapper.readValue(line, BookRequest.class));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        LineCounter counter = new LineCounter();
+        List<String> header = readCsvRecord(reader, counter);
+        if (header == null) return;
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!columns.containsKey("title") || !columns.containsKey("author")) {
+            throw new IllegalArgumentException("CSV header must contain title and author columns");
+        }
+
+        List<String> record;
+        while (true) {
+            long lineNumber = counter.lines + 1;
+            record = readCsvRecord(reader, counter);
+            if (record == null) break;
+            if (record.size() == 1 && record.getFirst().isBlank()) continue;
+            run.accept(lineNumber, new BookRequest(
+                    column(record, columns, "title"),
+                    column(record, columns, "author"),
+                    column(record, columns, "description"),
+                    column(record, columns, "category"),
+                    column(record, columns, "coverurl")
+            ));
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) return null;
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one RFC 4180 record; quoted fields may contain commas, doubled quotes and line breaks.
+     * Returns null at end of input.
+     */
+    private static List<String> readCsvRecord(BufferedReader reader, LineCounter counter) throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        counter.lines++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) break;
+            line = reader.readLine();
+            if (line == null) break;
+            counter.lines++;
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String validate(BookRequest request) {
+        if (request == null) return "Empty row";
+        if (request.title() == null || request.title().isBlank()) return "title is required";
+        if (request.author() == null || request.author().isBlank()) return "author is required";
+        if (tooLong(request.title())) return "title exceeds " + MAX_COLUMN_LENGTH + " characters";
+        if (tooLong(request.author())) return "author exceeds " + MAX_COLUMN_LENGTH + " characters";
+        if (tooLong(request.description())) return "description exceeds " + MAX_COLUMN_LENGTH + " characters";
+        if (tooLong(request.category())) return "category exceeds " + MAX_COLUMN_LENGTH + " characters";
+        if (tooLong(request.coverUrl())) return "coverUrl exceeds " + MAX_COLUMN_LENGTH + " characters";
+        return null;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_COLUMN_LENGTH;
+    }
+
+    private static final class LineCounter {
+        long lines;
+    }
+
+    private final class ImportRun {
+        private final UUID ownerId;
+        private final long startedAt = System.nanoTime();
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<BookImportError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private ImportRun(UUID ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        void accept(long line, BookRequest request) {
+            String error = validate(request);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            batch.add(new Object[]{
+                    UUID.randomUUID(),
+                    request.title().trim(),
+                    request.author().trim(),
+                    request.description(),
+                    request.category(),
+                    request.coverUrl(),
+                    ownerId
+            });
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportError(line, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_BOOK, batch));
+                imported += batch.size();
+                log.debug("Book import progress: {} imported, {} rejected", imported, rejected);
+            } catch (DataAccessException e) {
+                log.warn("Book import batch of {} rows failed, retrying row by row: {}",
+                        batch.size(), e.getMostSpecificCause().getMessage());
+                insertOneByOne();
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        /**
+         * The failed batch rolled back as a whole; each row gets its own transaction so only
+         * the rows the database refuses are rejected, each with its own error.
+         */
+        private void insertOneByOne() {
+            for (int i = 0; i < batch.size(); i++) {
+                Object[] row = batch.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_BOOK, row));
+                    imported++;
+                } catch (DataAccessException e) {
+                    reject(batchLines.get(i), "Insert failed: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+}
@@ -1,63 +1,138 @@
 package com.srinjaydg.enderbrary.book.services;
 
+import com.srinjaydg.enderbrary.book.events.BookChangedEvent;
 import com.srinjaydg.enderbrary.book.mappers.BookMapper;
 import com.srinjaydg.enderbrary.book.models.Book;
 import com.srinjaydg.enderbrary.book.repositories.BookRepository;
+import com.srinjaydg.enderbrary.book.repositories.BookSearchHit;
 import com.srinjaydg.enderbrary.book.request.BookRequest;
 import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.book.response.BookSuggestionResponse;
+import com.srinjaydg.enderbrary.common.CursorCodec;
+import com.srinjaydg.enderbrary.common.CursorPageResponse;
+import com.srinjaydg.enderbrary.common.ETags;
+import com.srinjaydg.enderbrary.common.NdjsonWriter;
 import com.srinjaydg.enderbrary.common.PageResponse;
+import com.srinjaydg.enderbrary.configuration.CacheConfig;
+import com.srinjaydg.enderbrary.exceptions.InvalidCursorException;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
 import com.srinjaydg.enderbrary.user.models.User;
+import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "enderbrary.service")
 @RequiredArgsConstructor
 @Slf4j
 public class BookService {
 
     private final BookRepository bookRepository;
+    private final UserRepository userRepository;
     private final BookMapper bookMapper;
+    private final NdjsonWriter ndjsonWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final UUID MIN_UUID = new UUID(0, 0);
 
     public BookResponse addBook(BookRequest request, Authentication connectedUser) {
-        User owner = (User) connectedUser.getPrincipal();
+        AuthenticatedUser principal = (AuthenticatedUser) connectedUser.getPrincipal();
+        User owner = userRepository.findById(principal.id())
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
         Book book = bookMapper.toBook(request);
         book.setOwner(owner);
         book.setIsAvailable(true);
         book.setIsArchived(false);
         Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(saved.getId()));
         return bookMapper.toBookResponse(saved);
     }
 
-    public PageResponse<BookResponse> getAllBooks(int page, int size) {
+    public String getAllBooksETag(int page, int size) {
+        Page<ETags.VersionedRow> versions = bookRepository.findAvailableVersions(PageRequest.of(page, size));
+        return ETags.ofPage(versions.getTotalElements(), versions.getContent());
+    }
+
+    /**
+     * @param eTag the tag from {@link #getAllBooksETag}, read before this call and cached with the page
+     */
+    @Cacheable(cacheNames = CacheConfig.BOOK_PAGES, key = "#page + ':' + #size", condition = "#page < 5")
+    public ETags.Tagged<PageResponse<BookResponse>> getAllBooks(int page, int size, String eTag) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Book> books = bookRepository.findByIsAvailableTrueAndIsArchivedFalse(pageable);
-        List<BookResponse> bookResponses = books.stream ()
-                .map(bookMapper::toBookResponse).toList ();
-        return new PageResponse<> (
-                bookResponses,
+        Page<BookResponse> books = bookRepository.findAvailableResponses(pageable);
+        return new ETags.Tagged<>(new PageResponse<> (
+                books.getContent (),
                 books.getNumber (),
                 books.getSize (),
                 books.getTotalElements (),
                 books.getTotalPages (),
                 books.isFirst (),
                 books.isLast ()
-        );
+        ), eTag);
+    }
+
+    /**
+     * Keyset-paginated catalog ordered by id: each slice seeks past the last id instead of
+     * skipping rows, so deep pages cost the same as the first. The count is opt-in.
+     */
+    public CursorPageResponse<BookResponse> getBooksAfter(String cursor, int size, boolean includeCount) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        UUID afterId = cursor == null || cursor.isBlank() ? MIN_UUID : parseUuid(CursorCodec.decode(cursor, 1)[0]);
+        List<BookResponse> books = bookRepository.findAvailableResponsesAfter(afterId, Limit.of(pageSize + 1));
+
+        boolean last = books.size() <= pageSize;
+        List<BookResponse> slice = last ? books : books.subList(0, pageSize);
+        return CursorPageResponse.<BookResponse>builder()
+                .content(slice)
+                .size(pageSize)
+                .nextCursor(last ? null : CursorCodec.encode(slice.getLast().id().toString()))
+                .last(last)
+                .totalElements(includeCount ? bookRepository.countByIsAvailableTrueAndIsArchivedFalse() : null)
+                .build();
+    }
+
+    /**
+     * Streams the whole catalog as NDJSON. Rows are read through a JDBC cursor and written as they arrive,
+     * so memory use does not grow with the catalog.
+     */
+    @Transactional
+    public void exportCatalog(OutputStream out) throws IOException {
+        try (Stream<BookResponse> books = bookRepository.streamAllResponses()) {
+            long exported = ndjsonWriter.write(books, BookResponse.class, out);
+            log.info("Exported {} books", exported);
+        }
     }
 
     public List<BookResponse> getBooksByOwner(Authentication connectedUser) {
-        User user = (User) connectedUser.getPrincipal();
-        List<Book> books = bookRepository.findByOwnerId(user.getId());
+        AuthenticatedUser user = (AuthenticatedUser) connectedUser.getPrincipal();
+        List<Book> books = bookRepository.findByOwnerId(user.id());
         if (books.isEmpty()) {
-            log.error("No books found for user with ID: {}", user.getId());
+            log.error("No books found for user with ID: {}", user.id());
             throw new NoSuchElementException("No books found for user");
         }
         return books.stream()
@@ -66,23 +141,35 @@ public class BookService {
     }
 
     public BookResponse archiveBook(UUID bookId, Authentication connectedUser) {
-        User user = (User) connectedUser.getPrincipal();
-        Book book = bookRepository.findByIdAndOwnerId(bookId, user.getId())
+        AuthenticatedUser user = (AuthenticatedUser) connectedUser.getPrincipal();
+        Book book = bookRepository.findByIdAndOwnerId(bookId, user.id())
                 .orElseThrow(() -> new NoSuchElementException("Book not found or not owned by user"));
         book.setIsArchived(true);
         Book archivedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
         return bookMapper.toBookResponse(archivedBook);
     }
 
-    public BookResponse getBookDetails(UUID bookId) {
-        Book book = bookRepository.findById(bookId)
+    public String getBookETag(UUID bookId) {
+        ETags.VersionedRow version = bookRepository.findVersionById(bookId)
+                .orElseThrow(() -> new NoSuchElementException("Book not found"));
+        return ETags.of(bookId, version.getVersion(), version.getOwnerUpdatedAt());
+    }
+
+    /**
+     * @param eTag the tag from {@link #getBookETag}, read before this call and cached with the book
+     */
+    @Cacheable(cacheNames = CacheConfig.BOOK_DETAILS, key = "#bookId")
+    public ETags.Tagged<BookResponse> getBookDetails(UUID bookId, String eTag) {
+        return bookRepository.findResponsesByIdIn(List.of(bookId)).stream()
+                .findFirst()
+                .map(book -> new ETags.Tagged<>(book, eTag))
                 .orElseThrow(() -> new NoSuchElementException("Book not found"));
-        return bookMapper.toBookResponse(book);
     }
 
     public List<BookResponse> getArchivedBooksByOwner(Authentication connectedUser) {
-        User user = (User) connectedUser.getPrincipal();
-        List<Book> books = bookRepository.findByOwnerIdAndIsArchivedTrue(user.getId());
+        AuthenticatedUser user = (AuthenticatedUser) connectedUser.getPrincipal();
+        List<Book> books = bookRepository.findByOwnerIdAndIsArchivedTrue(user.id());
         return books.stream()
                 .map(bookMapper::toBookResponse)
                 .toList();
@@ -90,31 +177,133 @@ public class BookService {
 
     public PageResponse<BookResponse> searchBooks(String keyword, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Book> books = bookRepository.searchByTitleOrAuthor(keyword.toLowerCase(), pageable);
-        List<BookResponse> bookResponses = books.stream()
-                .map(bookMapper::toBookResponse)
-                .toList();
+        String query = toPrefixQuery(keyword);
+        if (query.isEmpty()) {
+            return new PageResponse<>(List.of(), page, size, 0, 0, true, true);
+        }
+
+        Page<UUID> ids = bookRepository.searchIdsByRank(query, pageable);
         return new PageResponse<>(
-                bookResponses,
-                books.getNumber(),
-                books.getSize(),
-                books.getTotalElements(),
-                books.getTotalPages(),
-                books.isFirst(),
-                books.isLast()
+                loadInOrder(ids.getContent()),
+                ids.getNumber(),
+                ids.getSize(),
+                ids.getTotalElements(),
+                ids.getTotalPages(),
+                ids.isFirst(),
+                ids.isLast()
         );
     }
 
+    /**
+     * Keyset-paginated search ordered by (rank desc, id). The cursor carries the exact float rank
+     * of the last hit so the next slice resumes right after it.
+     */
+    public CursorPageResponse<BookResponse> searchBooksAfter(String keyword, String cursor, int size, boolean includeCount) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        String query = toPrefixQuery(keyword);
+        if (query.isEmpty()) {
+            return CursorPageResponse.<BookResponse>builder()
+                    .content(List.of())
+                    .size(pageSize)
+                    .last(true)
+                    .totalElements(includeCount ? 0L : null)
+                    .build();
+        }
+
+        float rank = Float.MAX_VALUE;
+        UUID afterId = MIN_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = CursorCodec.decode(cursor, 2);
+            rank = parseRank(keys[0]);
+            afterId = parseUuid(keys[1]);
+        }
+
+        List<BookSearchHit> hits = bookRepository.searchHitsAfter(query, rank, afterId, pageSize + 1);
+        boolean last = hits.size() <= pageSize;
+        List<BookSearchHit> slice = last ? hits : hits.subList(0, pageSize);
+        String nextCursor = null;
+        if (!last) {
+            BookSearchHit tail = slice.getLast();
+            nextCursor = CursorCodec.encode(
+                    Integer.toHexString(Float.floatToIntBits(tail.getRank())), tail.getId().toString());
+        }
+        Long total = includeCount
+                ? bookRepository.searchIdsByRank(query, PageRequest.of(0, 1)).getTotalElements()
+                : null;
+        return CursorPageResponse.<BookResponse>builder()
+                .content(loadInOrder(slice.stream().map(BookSearchHit::getId).toList()))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .last(last)
+                .totalElements(total)
+                .build();
+    }
+
+    public List<BookSuggestionResponse> suggest(String keyword, int limit) {
+        String normalized = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) return List.of();
+
+        String escaped = normalized
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        String prefix = escaped + "%";
+        // Trigram indexes only help from three characters on; shorter input is matched as a prefix
+        String pattern = normalized.length() < 3 ? prefix : "%" + prefix;
+        return bookRepository.suggest(pattern, prefix, Math.clamp(limit, 1, MAX_SUGGESTIONS)).stream()
+                .map(view -> new BookSuggestionResponse(view.getValue(), view.getField()))
+                .toList();
+    }
+
+    /**
+     * Turns free text into a to_tsquery prefix query ({@code "Lord of the" -> "lord:* & of:* & the:*"}),
+     * dropping everything but letters and digits so user input can't break the tsquery syntax.
+     */
+    static String toPrefixQuery(String keyword) {
+        if (keyword == null) return "";
+        return Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private List<BookResponse> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<UUID, BookResponse> booksById = bookRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookResponse::id, Function.identity()));
+        return ids.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static float parseRank(String value) {
+        try {
+            return Float.intBitsToFloat(Integer.parseUnsignedInt(value, 16));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
     public void deleteBook(UUID bookId, Authentication connectedUser) {
-        User user = (User) connectedUser.getPrincipal();
-        Book book = bookRepository.findByIdAndOwnerId(bookId, user.getId())
+        AuthenticatedUser user = (AuthenticatedUser) connectedUser.getPrincipal();
+        Book book = bookRepository.findByIdAndOwnerId(bookId, user.id())
                 .orElseThrow(() -> new NoSuchElementException("Book not found or not owned by user"));
         bookRepository.delete(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
     }
 
     public BookResponse updateBook(UUID bookId, BookRequest request, Authentication connectedUser) {
-        User user = (User) connectedUser.getPrincipal();
-        Book book = bookRepository.findByIdAndOwnerId(bookId, user.getId())
+        AuthenticatedUser user = (AuthenticatedUser) connectedUser.getPrincipal();
+        Book book = bookRepository.findByIdAndOwnerId(bookId, user.id())
                 .orElseThrow(() -> new NoSuchElementException("Book not found or not owned by user"));
 
         // Update book details
@@ -125,15 +314,17 @@ public class BookService {
         book.setDescription(request.description());
 
         Book updatedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
         return bookMapper.toBookResponse(updatedBook);
     }
 
     public BookResponse unarchiveBook(UUID bookId, Authentication connectedUser) {
-        User user = (User) connectedUser.getPrincipal();
-        Book book = bookRepository.findByIdAndOwnerId(bookId, user.getId())
+        AuthenticatedUser user = (AuthenticatedUser) connectedUser.getPrincipal();
+        Book book = bookRepository.findByIdAndOwnerId(bookId, user.id())
                 .orElseThrow(() -> new NoSuchElementException("Book not found or not owned by user"));
         book.setIsArchived(false);
         Book archivedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
         return bookMapper.toBookResponse(archivedBook);
     }
 }
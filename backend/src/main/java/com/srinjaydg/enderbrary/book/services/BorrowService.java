@@ -1,29 +1,44 @@
 package com.srinjaydg.enderbrary.book.services;
 
 import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
+import com.srinjaydg.enderbrary.book.events.BookChangedEvent;
 import com.srinjaydg.enderbrary.book.mappers.BorrowRequestMapper;
 import com.srinjaydg.enderbrary.book.models.Book;
 import com.srinjaydg.enderbrary.book.models.BorrowRequest;
 import com.srinjaydg.enderbrary.book.repositories.BookRepository;
 import com.srinjaydg.enderbrary.book.repositories.BorrowRequestRepository;
+import com.srinjaydg.enderbrary.book.repositories.BorrowRequestVersions;
+import com.srinjaydg.enderbrary.book.request.BorrowRequestFilter;
 import com.srinjaydg.enderbrary.book.response.BorrowRequestResponse;
+import com.srinjaydg.enderbrary.common.CursorCodec;
+import com.srinjaydg.enderbrary.common.CursorPageResponse;
+import com.srinjaydg.enderbrary.common.ETags;
 import com.srinjaydg.enderbrary.email.EmailService;
-import com.srinjaydg.enderbrary.email.EmailTemplatename;
+import com.srinjaydg.enderbrary.exceptions.BorrowStateConflictException;
+import com.srinjaydg.enderbrary.exceptions.InvalidCursorException;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
 import com.srinjaydg.enderbrary.user.models.User;
-import jakarta.mail.MessagingException;
+import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
 @Service
+@Observed(name = "enderbrary.service")
 @RequiredArgsConstructor
 @Slf4j
 public class BorrowService {
@@ -34,13 +49,22 @@ public class BorrowService {
     private final BorrowRequestRepository borrowRequestRepository;
     private final BorrowRequestMapper borrowRequestMapper;
     private final BookRepository bookRepository;
+    private final UserRepository userRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BorrowRequestResponse create(UUID bookId, Authentication authentication) throws MessagingException, UnsupportedEncodingException {
+    private static final int MAX_PAGE_SIZE = 100;
+    // Open-ended date bounds keep the filter predicates unconditional, so one plan serves every combination
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    @Transactional
+    public BorrowRequestResponse create(UUID bookId, Authentication authentication) {
         log.info("Creating borrow request for book ID: {}", bookId);
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new NoSuchElementException("Book not found with ID: " + bookId));
-        User borrower = (User) authentication.getPrincipal();
+        User borrower = userRepository.getReferenceById(((AuthenticatedUser) authentication.getPrincipal()).id());
 
         BorrowRequest newRequest = BorrowRequest.builder()
                 .book(book)
@@ -56,42 +80,68 @@ public class BorrowService {
         return borrowRequestMapper.toResponse(savedRequest);
     }
 
-    public BorrowRequestResponse approve(UUID requestId, Authentication authentication) throws MessagingException, UnsupportedEncodingException {
+    @Transactional
+    public BorrowRequestResponse approve(UUID requestId, Authentication authentication) {
         log.info("Approving borrow request ID: {}", requestId);
         BorrowRequest borrowRequest = borrowRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NoSuchElementException("Borrow request not found with ID: " + requestId));
 
-        User lender = (User) authentication.getPrincipal();
-        if (!borrowRequest.getLender().getId().equals(lender.getId())) {
+        AuthenticatedUser lender = (AuthenticatedUser) authentication.getPrincipal();
+        if (!borrowRequest.getLender().getId().equals(lender.id())) {
             throw new IllegalArgumentException("You are not authorized to approve this request");
         }
 
-        borrowRequest.setStatus(BorrowStatus.APPROVED);
-        BorrowRequest updatedRequest = borrowRequestRepository.save(borrowRequest);
+        // Conditional updates instead of read-modify-write: of two concurrent approvals for the same
+        // book only one can flip it to unavailable, the other gets a 409 and rolls back.
+        UUID bookId = borrowRequest.getBook().getId();
+        if (bookRepository.updateAvailability(bookId, true, false) == 0) {
+            throw new BorrowStateConflictException("Book is no longer available");
+        }
+        transition(requestId, List.of(BorrowStatus.PENDING), BorrowStatus.APPROVED);
+
+        // The competing requests are locked before they are rejected, so the rows updated are exactly the ones
+        // selected and only those borrowers are emailed; a concurrent reject or cancel waits and then gets a 409.
+        List<BorrowRequest> competing = borrowRequestRepository.lockOthersForBook(bookId, BorrowStatus.PENDING, requestId);
+        if (!competing.isEmpty()) {
+            int rejected = borrowRequestRepository.updateStatus(
+                    competing.stream().map(BorrowRequest::getId).toList(),
+                    List.of(BorrowStatus.PENDING),
+                    BorrowStatus.REJECTED
+            );
+            log.info("Auto-rejected {} pending requests for book ID: {}", rejected, bookId);
+        }
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
 
-        Book book = borrowRequest.getBook();
-        book.setIsAvailable(false);
-        bookRepository.save(book);
+        BorrowRequest updatedRequest = reload(requestId);
         sendApprovalNotification(updatedRequest);
+        competing.forEach(this::sendRejectionNotification);
         return borrowRequestMapper.toResponse(updatedRequest);
     }
 
-    public BorrowRequestResponse reject(UUID requestId, Authentication authentication) throws MessagingException, UnsupportedEncodingException {
+    @Transactional
+    public BorrowRequestResponse reject(UUID requestId, Authentication authentication) {
         log.info("Rejecting borrow request ID: {}", requestId);
         BorrowRequest borrowRequest = borrowRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NoSuchElementException("Borrow request not found with ID: " + requestId));
 
-        User lender = (User) authentication.getPrincipal();
-        if (!borrowRequest.getLender().getId().equals(lender.getId())) {
+        AuthenticatedUser lender = (AuthenticatedUser) authentication.getPrincipal();
+        if (!borrowRequest.getLender().getId().equals(lender.id())) {
             throw new IllegalArgumentException("You are not authorized to reject this request");
         }
 
-        borrowRequest.setStatus(BorrowStatus.REJECTED);
-        BorrowRequest updatedRequest = borrowRequestRepository.save(borrowRequest);
+        transition(requestId, List.of(BorrowStatus.PENDING), BorrowStatus.REJECTED);
+        BorrowRequest updatedRequest = reload(requestId);
         sendRejectionNotification(updatedRequest);
         return borrowRequestMapper.toResponse(updatedRequest);
     }
 
+    public String getBorrowRequestETag(UUID requestId) {
+        BorrowRequestVersions versions = borrowRequestRepository.findVersionsById(requestId)
+                .orElseThrow(() -> new NoSuchElementException("Borrow request not found with ID: " + requestId));
+        return ETags.of(requestId, versions.getVersion(), versions.getBookVersion(),
+                versions.getLenderUpdatedAt(), versions.getBorrowerUpdatedAt());
+    }
+
     public BorrowRequestResponse getBorrowRequest(UUID requestId) {
         log.info("Fetching borrow request ID: {}", requestId);
         BorrowRequest borrowRequest = borrowRequestRepository.findById(requestId)
@@ -101,8 +151,8 @@ public class BorrowService {
 
     public List<BorrowRequestResponse> getAllBorrowRequestsForUser(Authentication authentication) {
         log.info("Fetching all borrow requests for user");
-        User user = (User) authentication.getPrincipal();
-        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByBorrowerId(user.getId());
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByBorrowerId(user.id());
         return borrowRequests.stream()
                 .map(borrowRequestMapper::toResponse)
                 .toList();
@@ -110,8 +160,8 @@ public class BorrowService {
 
     public List<BorrowRequestResponse> getAllBorrowRequestsToUser(Authentication authentication) {
         log.info("Fetching all borrow requests to user");
-        User user = (User) authentication.getPrincipal();
-        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByLenderId(user.getId());
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByLenderId(user.id());
         return borrowRequests.stream()
                 .map(borrowRequestMapper::toResponse)
                 .toList();
@@ -119,89 +169,179 @@ public class BorrowService {
 
     public List<BorrowRequestResponse> getAllBorrowRequestsForBook(UUID bookId, Authentication authentication) {
         log.info("Fetching all borrow requests for book ID: {}", bookId);
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new NoSuchElementException("Book not found with ID: " + bookId));
-        if (!book.getOwner().getId().equals(user.getId())) {
+        if (!book.getOwner().getId().equals(user.id())) {
             throw new IllegalArgumentException("You are not authorized to view borrow requests for this book");
         }
-        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByBookIdAndLenderId(bookId, user.getId());
+        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByBookIdAndLenderId(bookId, user.id());
         return borrowRequests.stream()
                 .map(borrowRequestMapper::toResponse)
                 .toList();
     }
 
+    public CursorPageResponse<BorrowRequestResponse> getBorrowRequestsForUser(
+            Authentication authentication, BorrowRequestFilter filter, String cursor, int size, boolean includeCount) {
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).id();
+        return slice(filter, cursor, size,
+                (statuses, from, to, afterDate, afterId, limit) ->
+                        borrowRequestRepository.findBorrowerSlice(userId, statuses, from, to, afterDate, afterId, limit),
+                includeCount ? (statuses, from, to) -> borrowRequestRepository.countBorrowerFiltered(userId, statuses, from, to) : null);
+    }
+
+    public CursorPageResponse<BorrowRequestResponse> getBorrowRequestsToUser(
+            Authentication authentication, BorrowRequestFilter filter, String cursor, int size, boolean includeCount) {
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).id();
+        return slice(filter, cursor, size,
+                (statuses, from, to, afterDate, afterId, limit) ->
+                        borrowRequestRepository.findLenderSlice(userId, statuses, from, to, afterDate, afterId, limit),
+                includeCount ? (statuses, from, to) -> borrowRequestRepository.countLenderFiltered(userId, statuses, from, to) : null);
+    }
+
+    public CursorPageResponse<BorrowRequestResponse> getBorrowRequestsForBook(
+            UUID bookId, Authentication authentication, BorrowRequestFilter filter, String cursor, int size, boolean includeCount) {
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).id();
+        if (!bookRepository.existsByIdAndOwnerId(bookId, userId)) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new NoSuchElementException("Book not found with ID: " + bookId);
+            }
+            throw new IllegalArgumentException("You are not authorized to view borrow requests for this book");
+        }
+        return slice(filter, cursor, size,
+                (statuses, from, to, afterDate, afterId, limit) ->
+                        borrowRequestRepository.findBookSlice(bookId, userId, statuses, from, to, afterDate, afterId, limit),
+                includeCount ? (statuses, from, to) -> borrowRequestRepository.countBookFiltered(bookId, userId, statuses, from, to) : null);
+    }
+
     public List<BorrowRequestResponse> getPendingRequestsForUser(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        return borrowRequestRepository.findByBorrowerIdAndStatus(user.getId(), BorrowStatus.PENDING).stream()
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        return borrowRequestRepository.findByBorrowerIdAndStatus(user.id(), BorrowStatus.PENDING).stream()
                 .map(borrowRequestMapper::toResponse)
                 .toList();
     }
 
     public List<BorrowRequestResponse> getApprovedBorrows(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        return borrowRequestRepository.findByLenderIdAndStatus (user.getId(), BorrowStatus.APPROVED).stream()
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        return borrowRequestRepository.findByLenderIdAndStatus (user.id(), BorrowStatus.APPROVED).stream()
                 .map(borrowRequestMapper::toResponse)
                 .toList();
     }
 
     public List<BorrowRequestResponse> getLentBooks(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        return borrowRequestRepository.findByLenderIdAndStatus(user.getId(), BorrowStatus.APPROVED).stream()
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        return borrowRequestRepository.findByLenderIdAndStatus(user.id(), BorrowStatus.APPROVED).stream()
                 .map(borrowRequestMapper::toResponse)
                 .toList();
     }
 
-    public BorrowRequestResponse returnBook(UUID requestId, Authentication authentication) throws MessagingException, UnsupportedEncodingException {
+    @Transactional
+    public BorrowRequestResponse returnBook(UUID requestId, Authentication authentication) {
         log.info("Returning book for borrow request ID: {}", requestId);
         BorrowRequest borrowRequest = borrowRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NoSuchElementException("Borrow request not found with ID: " + requestId));
 
-        User borrower = (User) authentication.getPrincipal();
-        if (!borrowRequest.getBorrower().getId().equals(borrower.getId())) {
+        AuthenticatedUser borrower = (AuthenticatedUser) authentication.getPrincipal();
+        if (!borrowRequest.getBorrower().getId().equals(borrower.id())) {
             throw new IllegalArgumentException("You are not authorized to return this book");
         }
 
-        borrowRequest.setStatus(BorrowStatus.RETURN_REQUESTED);
-
-        BorrowRequest updatedRequest = borrowRequestRepository.save(borrowRequest);
+        transition(requestId, List.of(BorrowStatus.APPROVED), BorrowStatus.RETURN_REQUESTED);
+        BorrowRequest updatedRequest = reload(requestId);
         sendReturnRequestedNotification(updatedRequest);
         return borrowRequestMapper.toResponse(updatedRequest);
     }
 
-    public BorrowRequestResponse completeReturn(UUID requestId, Authentication authentication) throws MessagingException, UnsupportedEncodingException {
+    @Transactional
+    public BorrowRequestResponse completeReturn(UUID requestId, Authentication authentication) {
         log.info("Completing return for borrow request ID: {}", requestId);
         BorrowRequest borrowRequest = borrowRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NoSuchElementException("Borrow request not found with ID: " + requestId));
 
-        User lender = (User) authentication.getPrincipal();
-        if (!borrowRequest.getLender().getId().equals(lender.getId())) {
+        AuthenticatedUser lender = (AuthenticatedUser) authentication.getPrincipal();
+        if (!borrowRequest.getLender().getId().equals(lender.id())) {
             throw new IllegalArgumentException("You are not authorized to complete the return for this request");
         }
 
-        borrowRequest.setStatus(BorrowStatus.RETURNED);
-        Book book = borrowRequest.getBook();
-        book.setIsAvailable(true);
-        bookRepository.save(book);
+        transition(requestId, List.of(BorrowStatus.APPROVED, BorrowStatus.RETURN_REQUESTED), BorrowStatus.RETURNED);
+        UUID bookId = borrowRequest.getBook().getId();
+        if (bookRepository.updateAvailability(bookId, false, true) == 0) {
+            throw new BorrowStateConflictException("Book is not currently lent out");
+        }
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
 
-        BorrowRequest updatedRequest = borrowRequestRepository.save(borrowRequest);
+        BorrowRequest updatedRequest = reload(requestId);
         sendReturnCompletedNotification(updatedRequest);
         return borrowRequestMapper.toResponse(updatedRequest);
     }
 
+    private CursorPageResponse<BorrowRequestResponse> slice(BorrowRequestFilter filter, String cursor, int size,
+                                                            SliceQuery query, CountQuery count) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Collection<BorrowStatus> statuses = filter == null || filter.status() == null || filter.status().isEmpty()
+                ? EnumSet.allOf(BorrowStatus.class)
+                : filter.status();
+        LocalDateTime from = filter == null || filter.from() == null ? EARLIEST : filter.from();
+        LocalDateTime to = filter == null || filter.to() == null ? LATEST : filter.to();
+
+        LocalDateTime afterDate = LATEST;
+        UUID afterId = MAX_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = CursorCodec.decode(cursor, 2);
+            try {
+                afterDate = LocalDateTime.parse(keys[0]);
+                afterId = UUID.fromString(keys[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+        }
+
+        List<BorrowRequestResponse> rows = query.fetch(statuses, from, to, afterDate, afterId, Limit.of(pageSize + 1));
+        boolean last = rows.size() <= pageSize;
+        List<BorrowRequestResponse> content = last ? rows : rows.subList(0, pageSize);
+        BorrowRequestResponse tail = last ? null : content.getLast();
+        return CursorPageResponse.<BorrowRequestResponse>builder()
+                .content(content)
+                .size(pageSize)
+                .nextCursor(tail == null ? null : CursorCodec.encode(tail.requestDate().toString(), tail.id().toString()))
+                .last(last)
+                .totalElements(count == null ? null : count.count(statuses, from, to))
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface SliceQuery {
+        List<BorrowRequestResponse> fetch(Collection<BorrowStatus> statuses, LocalDateTime from, LocalDateTime to,
+                                          LocalDateTime afterDate, UUID afterId, Limit limit);
+    }
+
+    @FunctionalInterface
+    private interface CountQuery {
+        long count(Collection<BorrowStatus> statuses, LocalDateTime from, LocalDateTime to);
+    }
+
+    private void transition(UUID requestId, List<BorrowStatus> from, BorrowStatus to) {
+        if (borrowRequestRepository.updateStatus(List.of(requestId), from, to) == 0) {
+            throw new BorrowStateConflictException("Borrow request " + requestId + " can only move to " + to + " from " + from);
+        }
+    }
+
+    private BorrowRequest reload(UUID requestId) {
+        return borrowRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NoSuchElementException("Borrow request not found with ID: " + requestId));
+    }
 
-    private void sendBorrowRequestNotification(BorrowRequest borrowRequest) throws MessagingException, UnsupportedEncodingException {
+    private void sendBorrowRequestNotification(BorrowRequest borrowRequest) {
         log.info("Sending notification for borrow request ID: {}", borrowRequest.getId());
         emailService.sendBorrowRequestMail(
                 borrowRequest.getLender().getEmail(),
                 borrowRequest.getLender().getName(),
                 borrowRequest.getBorrower().getName(),
                 borrowRequest.getBook().getTitle(),
-                EmailTemplatename.BORROW_REQUEST,
                 manageRequestUrl+"/incoming-requests"
         );
     }
-    private void sendApprovalNotification(BorrowRequest borrowRequest) throws MessagingException, UnsupportedEncodingException {
+    private void sendApprovalNotification(BorrowRequest borrowRequest) {
         log.info("Sending approval email for borrow request ID: {}", borrowRequest.getId());
         emailService.sendBorrowApprovedEmail(
                 borrowRequest.getBorrower().getEmail(),
@@ -212,7 +352,7 @@ public class BorrowService {
         );
     }
 
-    private void sendRejectionNotification(BorrowRequest borrowRequest) throws MessagingException, UnsupportedEncodingException {
+    private void sendRejectionNotification(BorrowRequest borrowRequest) {
         log.info("Sending rejection email for borrow request ID: {}", borrowRequest.getId());
         emailService.sendBorrowRejectedEmail(
                 borrowRequest.getBorrower().getEmail(),
@@ -222,7 +362,7 @@ public class BorrowService {
         );
     }
 
-    private void sendReturnRequestedNotification(BorrowRequest borrowRequest) throws MessagingException, UnsupportedEncodingException {
+    private void sendReturnRequestedNotification(BorrowRequest borrowRequest) {
         log.info("Sending return requested email for borrow request ID: {}", borrowRequest.getId());
         emailService.sendReturnRequestedEmail(
                 borrowRequest.getLender().getEmail(),
@@ -233,7 +373,7 @@ public class BorrowService {
         );
     }
 
-    private void sendReturnCompletedNotification(BorrowRequest borrowRequest) throws MessagingException, UnsupportedEncodingException {
+    private void sendReturnCompletedNotification(BorrowRequest borrowRequest) {
         log.info("Sending return completed email for borrow request ID: {}", borrowRequest.getId());
         emailService.sendReturnCompletedEmail(
                 borrowRequest.getBorrower().getEmail(),
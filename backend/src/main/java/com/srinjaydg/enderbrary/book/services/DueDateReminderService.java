@@ -0,0 +1,166 @@
+package com.srinjaydg.enderbrary.book.services;
+
+import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
+import com.srinjaydg.enderbrary.book.repositories.BorrowRequestRepository;
+import com.srinjaydg.enderbrary.book.repositories.DueBorrowRequestRow;
+import com.srinjaydg.enderbrary.book.repositories.DueReminderItemView;
+import com.srinjaydg.enderbrary.common.SchedulerLease;
+import com.srinjaydg.enderbrary.email.EmailService;
+import com.srinjaydg.enderbrary.email.templates.DueDateReminderEmail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds approved borrow requests that are due soon or overdue, marks the overdue ones and queues one
+ * digest email per borrower. The scan walks the (status, due_date) index in bounded chunks, and each
+ * borrower is handled in its own transaction so a failure only affects that borrower's digest.
+ * A {@link SchedulerLease} keeps the job to one instance at a time.
+ */
+@Service
+@Slf4j
+public class DueDateReminderService {
+
+    static final String LEASE_NAME = "due-date-reminders";
+
+    // Keeps the email readable; the rest is summarised as "and N more"
+    private static final int MAX_DIGEST_ITEMS = 15;
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final BorrowRequestRepository borrowRequestRepository;
+    private final EmailService emailService;
+    private final SchedulerLease schedulerLease;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration remindBefore;
+    private final Duration repeatEvery;
+    private final Duration leaseDuration;
+    private final int chunkSize;
+
+    @Value("${application.mailing.frontend.manage-request-url}")
+    private String manageRequestUrl;
+
+    public DueDateReminderService(
+            BorrowRequestRepository borrowRequestRepository,
+            EmailService emailService,
+            SchedulerLease schedulerLease,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.borrow.reminders.remind-before:P2D}") Duration remindBefore,
+            @Value("${application.borrow.reminders.repeat-every:P1D}") Duration repeatEvery,
+            @Value("${application.borrow.reminders.lease:PT30M}") Duration leaseDuration,
+            @Value("${application.borrow.reminders.chunk-size:500}") int chunkSize
+    ) {
+        this.borrowRequestRepository = borrowRequestRepository;
+        this.emailService = emailService;
+        this.schedulerLease = schedulerLease;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.remindBefore = remindBefore;
+        this.repeatEvery = repeatEvery;
+        this.leaseDuration = leaseDuration;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${application.borrow.reminders.cron:0 0 8 * * *}")
+    public void sendReminders() {
+        if (!schedulerLease.tryAcquire(LEASE_NAME, leaseDuration)) {
+            log.debug("Skipping due-date reminders, another instance holds the lease");
+            return;
+        }
+        try {
+            processDue(LocalDateTime.now());
+        } finally {
+            schedulerLease.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * Runs one pass over everything due before {@code now + remind-before}.
+     * The caller must hold the lease; it is renewed after every chunk and the pass stops if that fails.
+     */
+    public void processDue(LocalDateTime now) {
+        LocalDateTime horizon = now.plus(remindBefore);
+        LocalDateTime remindedBefore = now.minus(repeatEvery);
+        Set<UUID> seenBorrowers = new HashSet<>();
+        int reminded = 0;
+        int overdue = 0;
+
+        LocalDateTime afterDate = EARLIEST;
+        UUID afterId = MIN_UUID;
+        while (true) {
+            List<DueBorrowRequestRow> rows = borrowRequestRepository.findDueAfter(
+                    BorrowStatus.APPROVED, horizon, now, remindedBefore, afterDate, afterId, Limit.of(chunkSize));
+            for (DueBorrowRequestRow row : rows) {
+                if (!seenBorrowers.add(row.getBorrowerId())) continue;
+                try {
+                    Outcome outcome = transactionTemplate.execute(status ->
+                            remindBorrower(row.getBorrowerId(), now, horizon, remindedBefore));
+                    overdue += outcome.markedOverdue();
+                    if (outcome.reminded()) reminded++;
+                } catch (RuntimeException e) {
+                    log.error("Due-date reminder failed for borrower {}", row.getBorrowerId(), e);
+                }
+            }
+            if (rows.size() < chunkSize) break;
+
+            DueBorrowRequestRow last = rows.getLast();
+            afterDate = last.getDueDate();
+            afterId = last.getId();
+            if (!schedulerLease.tryAcquire(LEASE_NAME, leaseDuration)) {
+                log.warn("Lost the due-date reminder lease, stopping after {} borrowers", seenBorrowers.size());
+                break;
+            }
+        }
+        log.info("Queued {} due-date reminders and marked {} borrow requests overdue", reminded, overdue);
+    }
+
+    private Outcome remindBorrower(UUID borrowerId, LocalDateTime now, LocalDateTime horizon, LocalDateTime remindedBefore) {
+        List<DueReminderItemView> items = borrowRequestRepository.findDueItemsForBorrower(
+                borrowerId, BorrowStatus.APPROVED, horizon);
+        if (items.isEmpty()) return new Outcome(0, false);
+
+        List<UUID> pastDue = items.stream()
+                .filter(item -> item.getOverdueAt() == null && item.getDueDate().isBefore(now))
+                .map(DueReminderItemView::getId)
+                .toList();
+        int markedOverdue = pastDue.isEmpty() ? 0 : borrowRequestRepository.markOverdue(pastDue, now);
+
+        boolean reminderDue = items.stream()
+                .anyMatch(item -> item.getReminderSentAt() == null || item.getReminderSentAt().isBefore(remindedBefore));
+        List<UUID> ids = items.stream().map(DueReminderItemView::getId).toList();
+        if (!reminderDue || borrowRequestRepository.markReminded(ids, now, remindedBefore) == 0) {
+            return new Outcome(markedOverdue, false);
+        }
+
+        List<DueDateReminderEmail.Item> digest = items.stream()
+                .limit(MAX_DIGEST_ITEMS)
+                .map(item -> new DueDateReminderEmail.Item(
+                        item.getBookTitle(),
+                        item.getLenderName(),
+                        item.getDueDate(),
+                        item.getDueDate().isBefore(now)))
+                .toList();
+        DueReminderItemView first = items.getFirst();
+        emailService.sendDueDateReminderEmail(
+                first.getBorrowerEmail(),
+                first.getBorrowerName(),
+                digest,
+                items.size() - digest.size(),
+                manageRequestUrl + "/requests"
+        );
+        return new Outcome(markedOverdue, true);
+    }
+
+    private record Outcome(int markedOverdue, boolean reminded) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.srinjaydg.enderbrary.common;
+
+import com.srinjaydg.enderbrary.exceptions.InvalidCursorException;
+
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes the sort key of the last row of a slice into an opaque, URL-safe cursor.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... keys) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(SEPARATOR, keys).getBytes(UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedKeys) {
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), UTF_8).split("\\|", -1);
+            if (keys.length != expectedKeys) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.srinjaydg.enderbrary.common;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated slice. Pass {@code nextCursor} back as {@code cursor} to get the following slice;
+ * it is null on the last one. {@code totalElements} is only filled when the caller asked for a count.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean last;
+    private Long totalElements;
+}
@@ -0,0 +1,62 @@
+package com.srinjaydg.enderbrary.common;
+
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Weak ETags derived from the version columns behind a response: the entity's {@code @Version} plus the
+ * {@code updated_at} of the users whose name, email or image it shows. They come from a cheap projection
+ * query, so a conditional GET is answered before anything is loaded or mapped.
+ */
+public final class ETags {
+
+    /** Lets clients store the response but makes them revalidate with If-None-Match on every use. */
+    public static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private ETags() {
+    }
+
+    public static String of(Object... validators) {
+        StringJoiner fingerprint = new StringJoiner(":");
+        for (Object validator : validators) {
+            fingerprint.add(String.valueOf(validator));
+        }
+        return weak(fingerprint.toString());
+    }
+
+    /**
+     * Fingerprint of a page: its total plus the validators of every row on it.
+     */
+    public static String ofPage(long totalElements, Iterable<? extends VersionedRow> rows) {
+        StringBuilder fingerprint = new StringBuilder().append(totalElements);
+        for (VersionedRow row : rows) {
+            fingerprint.append(';').append(row.getId())
+                    .append(':').append(row.getVersion())
+                    .append(':').append(row.getOwnerUpdatedAt());
+        }
+        return weak(fingerprint.toString());
+    }
+
+    private static String weak(String fingerprint) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(UTF_8)) + "\"";
+    }
+
+    public interface VersionedRow {
+        UUID getId();
+        Long getVersion();
+        LocalDateTime getOwnerUpdatedAt();
+    }
+
+    /**
+     * A cached body together with the tag computed before it was read, so a concurrent write can only leave
+     * the tag older than the body (and the client refetches), never newer.
+     */
+    public record Tagged<T>(T body, String eTag) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.srinjaydg.enderbrary.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of rows as newline-delimited JSON, one object per line, without collecting it first.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonWriter {
+
+    private static final int NEWLINE = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    public <T> long write(Stream<T> rows, Class<T> type, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type);
+        long written = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            out.write(writer.writeValueAsBytes(iterator.next()));
+            out.write(NEWLINE);
+            written++;
+        }
+        out.flush();
+        return written;
+    }
+}
@@ -0,0 +1,66 @@
+package com.srinjaydg.enderbrary.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row-per-job lease in {@code scheduler_lease} so that a scheduled job runs on one instance at a time.
+ * A lease that is not released (crashed instance) simply expires, and plain row updates keep it
+ * portable across databases, unlike Postgres advisory locks tied to a pooled connection.
+ */
+@Component
+@Slf4j
+public class SchedulerLease {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+
+    public SchedulerLease(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Takes (or extends) the lease named {@code name} for {@code duration}.
+     * Each statement commits on its own, so this must not be called inside a transaction.
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp until = Timestamp.valueOf(now.plus(duration));
+        int updated = jdbcTemplate.update("""
+                UPDATE scheduler_lease SET owner = ?, locked_until = ?
+                WHERE name = ? AND (locked_until < ? OR owner = ?)
+                """, owner, until, name, Timestamp.valueOf(now), owner);
+        if (updated == 1) return true;
+        try {
+            jdbcTemplate.update("INSERT INTO scheduler_lease (name, owner, locked_until) VALUES (?, ?, ?)",
+                    name, owner, until);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Lease {} is held by another instance", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        jdbcTemplate.update("UPDATE scheduler_lease SET locked_until = ? WHERE name = ? AND owner = ?",
+                Timestamp.valueOf(LocalDateTime.now()), name, owner);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
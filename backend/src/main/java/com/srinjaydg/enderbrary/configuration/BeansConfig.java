@@ -1,5 +1,8 @@
 package com.srinjaydg.enderbrary.configuration;
 
+import com.srinjaydg.enderbrary.email.PooledJavaMailSender;
+import com.srinjaydg.enderbrary.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +14,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,6 +22,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Properties;
 
@@ -48,8 +53,33 @@ public class BeansConfig {
     @Value("${spring.mail.properties.mail.smtp.ssl.trust}")
     String email_ssl_trust;
 
+    @Value("${application.mailing.smtp.pool.max-idle:4}")
+    int email_pool_max_idle;
+
+    @Value("${application.mailing.smtp.pool.idle-timeout:PT2M}")
+    Duration email_pool_idle_timeout;
+
+    @Value("${application.mailing.smtp.pool.max-messages-per-connection:50}")
+    int email_pool_max_messages;
+
+    @Value("${application.mailing.smtp.timeout:10000}")
+    String email_timeout;
+
+    @Value("${application.security.password.bcrypt-strength:10}")
+    int password_bcrypt_strength;
+
+    @Value("${application.security.password.hashing.threads:0}")
+    int password_hashing_threads;
+
+    @Value("${application.security.password.hashing.queue-capacity:64}")
+    int password_hashing_queue_capacity;
+
+    @Value("${application.security.password.hashing.timeout:PT5S}")
+    Duration password_hashing_timeout;
+
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     @Bean
     public CorsFilter corsFilter() {
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -65,9 +95,22 @@ public class BeansConfig {
         return new CorsFilter(source);
     }
 
+    /**
+     * BCrypt on a dedicated pool; threads default to half the CPUs so hashing cannot starve catalog reads.
+     * Raising the strength rehashes each user's password on their next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = password_hashing_threads > 0
+                ? password_hashing_threads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(password_bcrypt_strength),
+                threads,
+                password_hashing_queue_capacity,
+                password_hashing_timeout,
+                meterRegistry
+        );
     }
 
     @Bean
@@ -79,9 +122,16 @@ public class BeansConfig {
         properties.put("mail.smtp.host", email_host);
         properties.put("mail.smtp.port", email_port);
         properties.put("mail.smtp.ssl.trust", email_ssl_trust);
-
-
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        properties.put("mail.smtp.connectiontimeout", email_timeout);
+        properties.put("mail.smtp.timeout", email_timeout);
+        properties.put("mail.smtp.writetimeout", email_timeout);
+
+        // Keeps authenticated connections open between sends instead of reconnecting per message
+        JavaMailSenderImpl mailSender = new PooledJavaMailSender(
+                email_pool_max_idle,
+                email_pool_idle_timeout,
+                email_pool_max_messages
+        );
         mailSender.setHost(email_host);
         mailSender.setPort(Integer.parseInt(email_port));
         mailSender.setUsername(email_username);
@@ -91,10 +141,11 @@ public class BeansConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
     @Bean
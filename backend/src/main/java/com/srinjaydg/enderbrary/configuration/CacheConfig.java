@@ -0,0 +1,48 @@
+package com.srinjaydg.enderbrary.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process Caffeine caches for the hottest book reads. Every cache records stats, so Boot binds
+ * {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} metrics for each of them.
+ * Swapping in a shared backend only means replacing this {@link CacheManager} bean.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOK_DETAILS = "bookDetails";
+    public static final String BOOK_PAGES = "bookPages";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${application.cache.book-details.ttl:PT10M}") Duration bookDetailsTtl,
+            @Value("${application.cache.book-details.max-size:10000}") long bookDetailsMaxSize,
+            @Value("${application.cache.book-pages.ttl:PT30S}") Duration bookPagesTtl,
+            @Value("${application.cache.book-pages.max-size:200}") long bookPagesMaxSize
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Static mode: only the caches registered below exist, unknown names fail instead of growing unbounded
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(BOOK_DETAILS, Caffeine.newBuilder()
+                .maximumSize(bookDetailsMaxSize)
+                .expireAfterWrite(bookDetailsTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(BOOK_PAGES, Caffeine.newBuilder()
+                .maximumSize(bookPagesMaxSize)
+                .expireAfterWrite(bookPagesTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,89 @@
+package com.srinjaydg.enderbrary.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fails startup when the live schema no longer matches the migrations: pending migrations, or indexes
+ * the queries rely on that were dropped by hand. Tables and columns are covered by {@code ddl-auto=validate}.
+ */
+@Component
+@ConditionalOnProperty(name = "application.schema.drift-check.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaDriftCheck {
+
+    static final List<String> REQUIRED_INDEXES = List.of(
+            "idx_borrow_request_borrower_status",
+            "idx_borrow_request_lender_status",
+            "idx_borrow_request_book_lender",
+            "idx_borrow_request_book_pending",
+            "idx_borrow_request_borrower_date",
+            "idx_borrow_request_lender_date",
+            "idx_borrow_request_status_due",
+            "idx_book_owner_archived",
+            "idx_book_available",
+            "idx_token_user_token",
+            "idx_token_pending",
+            "idx_token_expires",
+            "idx_email_outbox_due",
+            "idx_book_search",
+            "idx_book_title_prefix",
+            "idx_book_author_prefix"
+    );
+
+    // Only present where pg_trgm could be installed
+    static final List<String> TRIGRAM_INDEXES = List.of("idx_book_title_trgm", "idx_book_author_trgm");
+
+    private final ObjectProvider<Flyway> flyway;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.info("Skipping schema drift check on {}", database);
+            return;
+        }
+
+        List<String> problems = new ArrayList<>();
+        Flyway migrations = flyway.getIfAvailable();
+        if (migrations != null) {
+            int pending = migrations.info().pending().length;
+            if (pending > 0) {
+                problems.add(pending + " pending migration(s)");
+            }
+        }
+
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        List<String> expected = new ArrayList<>(REQUIRED_INDEXES);
+        Boolean trigram = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class);
+        if (Boolean.TRUE.equals(trigram)) {
+            expected.addAll(TRIGRAM_INDEXES);
+        }
+        expected.stream()
+                .filter(index -> !present.contains(index))
+                .forEach(index -> problems.add("missing index " + index));
+
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Database schema has drifted from the migrations: " + String.join(", ", problems));
+        }
+        log.info("Schema matches migrations ({} indexes checked)", expected.size());
+    }
+}
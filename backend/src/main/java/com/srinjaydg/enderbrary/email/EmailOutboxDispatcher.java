@@ -0,0 +1,108 @@
+package com.srinjaydg.enderbrary.email;
+
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the email outbox on a small pool of its own so request threads never wait on SMTP.
+ * The workers are platform threads on purpose: Jakarta Mail sends inside {@code synchronized}
+ * methods, which would pin a virtual thread's carrier for the whole SMTP exchange.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final EmailService emailService;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final ExecutorService workers;
+
+    @Value("${application.mailing.outbox.retention:P7D}")
+    private Duration retention;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxService outboxService,
+            EmailService emailService,
+            @Value("${application.mailing.outbox.concurrency:4}") int concurrency,
+            @Value("${application.mailing.outbox.batch-size:20}") int batchSize
+    ) {
+        this.outboxService = outboxService;
+        this.emailService = emailService;
+        this.permits = new Semaphore(concurrency);
+        this.batchSize = batchSize;
+        this.workers = Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("email-outbox-", 1).factory());
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.mailing.outbox.initial-delay:PT10S}",
+            fixedDelayString = "${application.mailing.outbox.poll-interval:PT5S}"
+    )
+    public void dispatch() {
+        int available = permits.availablePermits();
+        if (available == 0) return;
+
+        // Each worker sends one batch over a single SMTP session
+        List<EmailOutboxMessage> claimed = outboxService.claimDue(available * batchSize);
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<EmailOutboxMessage> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            permits.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    @Scheduled(cron = "${application.mailing.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeDelivered() {
+        int purged = outboxService.purgeDelivered(retention);
+        log.info("Purged {} delivered emails from the outbox", purged);
+    }
+
+    private void deliver(List<EmailOutboxMessage> batch) {
+        Map<UUID, Exception> failures;
+        try {
+            failures = emailService.deliver(batch);
+        } catch (Exception e) {
+            failures = new HashMap<>();
+            for (EmailOutboxMessage message : batch) {
+                failures.put(message.getId(), e);
+            }
+        }
+        for (EmailOutboxMessage message : batch) {
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                outboxService.markSent(message.getId());
+            } else {
+                outboxService.markFailed(message.getId(), failure);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Email workers did not finish in time; unsent messages will be retried after their lease expires");
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.srinjaydg.enderbrary.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srinjaydg.enderbrary.email.enums.OutboxStatus;
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import com.srinjaydg.enderbrary.email.repositories.EmailOutboxRepository;
+import com.srinjaydg.enderbrary.email.templates.EmailModel;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persists outgoing emails so they are written in the caller's transaction and
+ * delivered later by {@link EmailOutboxDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private static final List<OutboxStatus> DELIVERABLE = List.of(OutboxStatus.PENDING, OutboxStatus.SENDING);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${application.mailing.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${application.mailing.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${application.mailing.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${application.mailing.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Transactional
+    public void enqueue(EmailModel model, String to) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage message = EmailOutboxMessage.builder()
+                .template(model.template())
+                .recipient(to)
+                .subject(model.subject())
+                .payload(writePayload(model))
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        outboxRepository.save(message);
+        log.info("Queued {} email to {}", model.template(), to);
+    }
+
+    /**
+     * Claims up to {@code limit} due messages by moving them to SENDING with a lease.
+     * If the instance dies mid-delivery the lease expires and the message becomes due again.
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> due = outboxRepository.findDueForUpdate(DELIVERABLE, now, PageRequest.of(0, limit));
+        for (EmailOutboxMessage message : due) {
+            message.setStatus(OutboxStatus.SENDING);
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return outboxRepository.saveAll(due);
+    }
+
+    @Transactional
+    public void markSent(UUID messageId) {
+        outboxRepository.findById(messageId).ifPresent(message -> {
+            message.setStatus(OutboxStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        });
+    }
+
+    @Transactional
+    public void markFailed(UUID messageId, Exception error) {
+        outboxRepository.findById(messageId).ifPresent(message -> {
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(truncate(error.getMessage()));
+            if (attempts >= maxAttempts) {
+                message.setStatus(OutboxStatus.DEAD);
+                log.error("Email {} to {} dead-lettered after {} attempts", messageId, message.getRecipient(), attempts, error);
+                return;
+            }
+            message.setStatus(OutboxStatus.PENDING);
+            message.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            log.warn("Email {} to {} failed (attempt {}), retrying at {}", messageId, message.getRecipient(), attempts, message.getNextAttemptAt());
+        });
+    }
+
+    @Transactional
+    public int purgeDelivered(Duration retention) {
+        return outboxRepository.deleteDelivered(OutboxStatus.SENT, LocalDateTime.now().minus(retention));
+    }
+
+    public EmailModel readModel(EmailOutboxMessage message) {
+        try {
+            return objectMapper.readValue(message.getPayload(), message.getTemplate().getModelType());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt payload for email " + message.getId(), e);
+        }
+    }
+
+    private String writePayload(EmailModel model) {
+        try {
+            return objectMapper.writeValueAsString(model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email model is not serializable", e);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String value) {
+        if (value == null) return null;
+        return value.length() <= 1000 ? value : value.substring(0, 1000);
+    }
+}
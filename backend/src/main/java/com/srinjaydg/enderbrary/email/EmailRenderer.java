@@ -0,0 +1,86 @@
+package com.srinjaydg.enderbrary.email;
+
+import com.srinjaydg.enderbrary.email.templates.EmailModel;
+import jakarta.activation.DataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Turns an {@link EmailModel} into a ready-to-send {@link MimeMessage}.
+ * Templates are parsed once at startup (the resolver cache keeps them) and the logo is read
+ * from the classpath once and shared by every message.
+ */
+@Component
+@Slf4j
+public class EmailRenderer {
+
+    private static final String LOGO_CONTENT_ID = "logoImage";
+
+    private final ITemplateEngine templateEngine;
+    private final DataSource logo;
+
+    public EmailRenderer(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+        this.logo = loadLogo();
+    }
+
+    @PostConstruct
+    public void precompileTemplates() {
+        for (EmailTemplatename template : EmailTemplatename.values()) {
+            templateEngine.process(template.getName(), new Context());
+        }
+        log.info("Pre-compiled {} email templates", EmailTemplatename.values().length);
+    }
+
+    public void render(MimeMessage mimeMessage, EmailModel model, String to) throws MessagingException, UnsupportedEncodingException {
+        MimeMessageHelper helper = new MimeMessageHelper(
+                mimeMessage,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                UTF_8.name()
+        );
+
+        // Set basic email metadata
+        switch (model.template()) {
+            case ACTIVATE_ACCOUNT -> helper.setFrom("contact@srinjaydg.in");
+            case BORROW_REQUEST -> {
+                helper.setFrom(new InternetAddress("info@enderbrary.srinjaydg.in", "Enderbrary"));
+                helper.setReplyTo("noreply@enderbrary.srinjaydg.in");
+            }
+            default -> helper.setFrom("info@enderbrary.srinjaydg.in");
+        }
+        helper.setTo(to);
+        helper.setSubject(model.subject());
+
+        Context context = new Context();
+        context.setVariables(model.variables());
+        helper.setText(templateEngine.process(model.template().getName(), context), true);
+
+        helper.addInline(LOGO_CONTENT_ID, logo);
+    }
+
+    private static DataSource loadLogo() {
+        try (InputStream in = new ClassPathResource("static/logo.png").getInputStream()) {
+            ByteArrayDataSource dataSource = new ByteArrayDataSource(in.readAllBytes(), "image/png");
+            dataSource.setName("logo.png");
+            return dataSource;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load static/logo.png", e);
+        }
+    }
+}
@@ -1,243 +1,154 @@
 package com.srinjaydg.enderbrary.email;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.InternetAddress;
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import com.srinjaydg.enderbrary.email.templates.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
+/**
+ * The {@code send*} methods only queue the message in the outbox, inside the caller's transaction.
+ * {@link EmailOutboxDispatcher} later calls {@link #deliver(List)} to talk to SMTP.
+ */
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class EmailService {
 
     private final JavaMailSender mailSender;
-    private final SpringTemplateEngine templateEngine;
+    private final EmailRenderer emailRenderer;
+    private final EmailOutboxService outboxService;
+    private final MeterRegistry meterRegistry;
 
     @Value ("${application.frontend.url}")
     private String frontendUrl;
 
-    @Async
     public void sendActivationMail(
             String to,
             String userName,
-            EmailTemplatename emailTemplate,
             String confirmationUrl,
             String activationCode,
             String subject
-    ) throws MessagingException {
-        String templateName = (emailTemplate == null) ? "activate_account" : emailTemplate.getName();
-
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(
-                mimeMessage,
-                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                UTF_8.name()
-        );
-
-        // Email variables
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("userName", userName);
-        properties.put("confirmationUrl", confirmationUrl);
-        properties.put("activation_code", activationCode);
-        Context context = new Context();
-        context.setVariables(properties);
-
-        // Set basic email metadata
-        helper.setFrom("contact@srinjaydg.in");
-        helper.setTo(to);
-        helper.setSubject(subject);
-
-        // Render Thymeleaf template
-        String htmlContent = templateEngine.process(templateName, context);
-        helper.setText(htmlContent, true);
-
-        // Embed the logo from resources/static/logo.png
-        ClassPathResource logo = new ClassPathResource("static/logo.png");
-        helper.addInline("logoImage", logo);
-
-        // Send
-        mailSender.send(mimeMessage);
+    ) {
+        outboxService.enqueue(new ActivationEmail(userName, confirmationUrl, activationCode, subject), to);
     }
 
-    @Async
     public void sendBorrowRequestMail(
             String to,
             String lenderName,
             String borrowerName,
             String bookTitle,
-            EmailTemplatename emailTemplate,
             String manageRequestUrl
-    ) throws MessagingException, UnsupportedEncodingException, UnsupportedEncodingException {
-
-        log.info("Sending borrow request email to {}", to);
-
-        String templateName = (emailTemplate == null) ? "borrow_request" : emailTemplate.getName();
-
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(
-                mimeMessage,
-                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                UTF_8.name()
-        );
-
-        Map<String, Object> props = new HashMap<>();
-        props.put("lenderName", lenderName);
-        props.put("borrowerName", borrowerName);
-        props.put("bookTitle", bookTitle);
-        props.put("manageRequestUrl", manageRequestUrl);
-
-        Context context = new Context();
-        context.setVariables(props);
-
-        helper.setFrom(new InternetAddress("info@enderbrary.srinjaydg.in", "Enderbrary"));
-        helper.setTo(to);
-        helper.setReplyTo("noreply@enderbrary.srinjaydg.in");
-        helper.setSubject("New Borrow Request for " + bookTitle);
-
-        String htmlContent = templateEngine.process(templateName, context);
-        helper.setText(htmlContent, true);
-
-        ClassPathResource logo = new ClassPathResource("static/logo.png");
-        helper.addInline("logoImage", logo);
-
-        mailSender.send(mimeMessage);
+    ) {
+        outboxService.enqueue(new BorrowRequestEmail(lenderName, borrowerName, bookTitle, manageRequestUrl), to);
     }
 
-    @Async
     public void sendBorrowApprovedEmail(
             String to,
             String borrowerName,
             String lenderName,
             String bookTitle,
             String viewUrl
-    ) throws MessagingException {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
-
-        Map<String, Object> props = new HashMap<>();
-        props.put("borrowerName", borrowerName);
-        props.put("lenderName", lenderName);
-        props.put("bookTitle", bookTitle);
-        props.put("viewUrl", viewUrl);
-
-        Context context = new Context();
-        context.setVariables(props);
-
-        helper.setFrom("info@enderbrary.srinjaydg.in");
-        helper.setTo(to);
-        helper.setSubject("Your borrow request for \"" + bookTitle + "\" has been approved");
-
-        String htmlContent = templateEngine.process(EmailTemplatename.BORROW_REQUEST_APPROVED.getName(), context);
-        helper.setText(htmlContent, true);
-        helper.addInline("logoImage", new ClassPathResource("static/logo.png"));
-
-        mailSender.send(mimeMessage);
+    ) {
+        outboxService.enqueue(new BorrowApprovedEmail(borrowerName, lenderName, bookTitle, viewUrl), to);
     }
 
-    @Async
     public void sendBorrowRejectedEmail(
             String to,
             String borrowerName,
             String lenderName,
             String bookTitle
-    ) throws MessagingException {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
-
-        Map<String, Object> props = new HashMap<>();
-        props.put("borrowerName", borrowerName);
-        props.put("lenderName", lenderName);
-        props.put("bookTitle", bookTitle);
-        props.put ("bookExploreUrl", frontendUrl);
-
-        Context context = new Context();
-        context.setVariables(props);
-
-        helper.setFrom("info@enderbrary.srinjaydg.in");
-        helper.setTo(to);
-        helper.setSubject("Your borrow request for \"" + bookTitle + "\" was rejected");
-
-        String htmlContent = templateEngine.process(EmailTemplatename.BORROW_REQUEST_REJECTED.getName(), context);
-        helper.setText(htmlContent, true);
-        helper.addInline("logoImage", new ClassPathResource("static/logo.png"));
-
-        mailSender.send(mimeMessage);
+    ) {
+        outboxService.enqueue(new BorrowRejectedEmail(borrowerName, lenderName, bookTitle, frontendUrl), to);
     }
 
-    @Async
     public void sendReturnCompletedEmail(
             String to,
             String borrowerName,
             String lenderName,
             String bookTitle
-    ) throws MessagingException {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
-
-        Map<String, Object> props = new HashMap<>();
-        props.put("borrowerName", borrowerName);
-        props.put("lenderName", lenderName);
-        props.put("bookTitle", bookTitle);
-        props.put("exploreUrl", frontendUrl);
-
-        Context context = new Context();
-        context.setVariables(props);
-
-        helper.setFrom("info@enderbrary.srinjaydg.in");
-        helper.setTo(to);
-        helper.setSubject("Return of \"" + bookTitle + "\" is complete");
-
-        String htmlContent = templateEngine.process(EmailTemplatename.RETURN_REQUEST_COMPLETED.getName(), context);
-        helper.setText(htmlContent, true);
-        helper.addInline("logoImage", new ClassPathResource("static/logo.png"));
-
-        mailSender.send(mimeMessage);
+    ) {
+        outboxService.enqueue(new ReturnCompletedEmail(borrowerName, lenderName, bookTitle, frontendUrl), to);
     }
 
-    @Async
     public void sendReturnRequestedEmail(
             String to,
             String lenderName,
             String borrowerName,
             String bookTitle,
             String verifyReturnUrl
-    ) throws MessagingException {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
-
-        Map<String, Object> props = new HashMap<>();
-        props.put("lenderName", lenderName);
-        props.put("borrowerName", borrowerName);
-        props.put("bookTitle", bookTitle);
-        props.put("verifyReturnUrl", verifyReturnUrl);
-
-        Context context = new Context();
-        context.setVariables(props);
-
-        helper.setFrom("info@enderbrary.srinjaydg.in");
-        helper.setTo(to);
-        helper.setSubject("Return requested for \"" + bookTitle + "\"");
+    ) {
+        outboxService.enqueue(new ReturnRequestedEmail(lenderName, borrowerName, bookTitle, verifyReturnUrl), to);
+    }
 
-        String htmlContent = templateEngine.process(EmailTemplatename.RETURN_REQUEST.getName(), context);
-        helper.setText(htmlContent, true);
-        helper.addInline("logoImage", new ClassPathResource("static/logo.png"));
+    public void sendDueDateReminderEmail(
+            String to,
+            String borrowerName,
+            List<DueDateReminderEmail.Item> items,
+            int moreCount,
+            String viewUrl
+    ) {
+        outboxService.enqueue(new DueDateReminderEmail(borrowerName, items, moreCount, viewUrl), to);
+    }
 
-        mailSender.send(mimeMessage);
+    /**
+     * Renders the queued messages and sends them as one batch over a single pooled SMTP connection.
+     * Called from the outbox workers only.
+     *
+     * @return the messages that could not be rendered or sent, keyed by outbox id
+     */
+    public Map<UUID, Exception> deliver(List<EmailOutboxMessage> messages) {
+        Map<UUID, Exception> failures = new HashMap<>();
+        Map<MimeMessage, UUID> prepared = new LinkedHashMap<>();
+        List<EmailOutboxMessage> rendered = new ArrayList<>(messages.size());
+        for (EmailOutboxMessage message : messages) {
+            try {
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                emailRenderer.render(mimeMessage, outboxService.readModel(message), message.getRecipient());
+                prepared.put(mimeMessage, message.getId());
+                rendered.add(message);
+            } catch (Exception e) {
+                failures.put(message.getId(), e);
+                countOutcome(message, "render_failed");
+            }
+        }
+        if (prepared.isEmpty()) return failures;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            mailSender.send(prepared.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Without per-message failures everything went out and only closing the connection failed
+            e.getFailedMessages().forEach((mimeMessage, cause) -> failures.put(prepared.get(mimeMessage), cause));
+            result = "partial";
+        } catch (MailException e) {
+            prepared.values().forEach(id -> failures.put(id, e));
+            result = "failed";
+        }
+        sample.stop(meterRegistry.timer("enderbrary.email.smtp.send", "result", result));
+
+        for (EmailOutboxMessage message : rendered) {
+            countOutcome(message, failures.containsKey(message.getId()) ? "send_failed" : "sent");
+        }
+        return failures;
     }
 
+    private void countOutcome(EmailOutboxMessage message, String outcome) {
+        meterRegistry.counter("enderbrary.email.deliveries",
+                "template", message.getTemplate().name(),
+                "outcome", outcome).increment();
+    }
 }
@@ -1,21 +1,25 @@
 package com.srinjaydg.enderbrary.email;
 
+import com.srinjaydg.enderbrary.email.templates.*;
 import lombok.Getter;
 
 @Getter
 public enum EmailTemplatename {
 
-    ACTIVATE_ACCOUNT("activate_account"),
-    BORROW_REQUEST("borrow_request"),
-    BORROW_REQUEST_APPROVED("borrow_request_approved"),
-    BORROW_REQUEST_REJECTED("borrow_request_rejected"),
-    RETURN_REQUEST("return_requested"),
-    RETURN_REQUEST_COMPLETED("return_completed"),
+    ACTIVATE_ACCOUNT("activate_account", ActivationEmail.class),
+    BORROW_REQUEST("borrow_request", BorrowRequestEmail.class),
+    BORROW_REQUEST_APPROVED("borrow_request_approved", BorrowApprovedEmail.class),
+    BORROW_REQUEST_REJECTED("borrow_request_rejected", BorrowRejectedEmail.class),
+    RETURN_REQUEST("return_requested", ReturnRequestedEmail.class),
+    RETURN_REQUEST_COMPLETED("return_completed", ReturnCompletedEmail.class),
+    DUE_DATE_REMINDER("due_date_reminder", DueDateReminderEmail.class),
     ;
 
     private final String name;
+    private final Class<? extends EmailModel> modelType;
 
-    EmailTemplatename(String name) {
+    EmailTemplatename(String name, Class<? extends EmailModel> modelType) {
         this.name = name;
+        this.modelType = modelType;
     }
 }
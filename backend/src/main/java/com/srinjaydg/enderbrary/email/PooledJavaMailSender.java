@@ -0,0 +1,146 @@
+package com.srinjaydg.enderbrary.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps authenticated SMTP connections open and reuses them,
+ * instead of doing TLS + AUTH + QUIT for every {@code send} call. A batch passed to
+ * {@code send(MimeMessage...)} goes out over a single borrowed connection.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final int maxIdle;
+    private final long idleTimeoutNanos;
+    private final int maxMessagesPerConnection;
+
+    public PooledJavaMailSender(int maxIdle, Duration idleTimeout, int maxMessagesPerConnection) {
+        this.maxIdle = maxIdle;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport pooled = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (pooled == null || !pooled.transport().isConnected() || pooled.exhausted(maxMessagesPerConnection)) {
+                    discard(pooled);
+                    pooled = null;
+                    try {
+                        pooled = borrow();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (Exception ex) {
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        mimeMessage.setHeader("Message-ID", messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    pooled.transport().sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                    pooled = pooled.sent();
+                } catch (Exception ex) {
+                    failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessage, ex);
+                }
+            }
+        } finally {
+            release(pooled);
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.expired(idleTimeoutNanos) || !pooled.transport().isConnected()) {
+                discard(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return new PooledTransport(connectTransport(), 0, System.nanoTime());
+    }
+
+    private void release(@Nullable PooledTransport pooled) {
+        if (pooled == null) return;
+        if (!pooled.transport().isConnected()
+                || pooled.exhausted(maxMessagesPerConnection)
+                || idle.size() >= maxIdle) {
+            discard(pooled);
+            return;
+        }
+        idle.offerFirst(pooled.touched());
+    }
+
+    private void discard(@Nullable PooledTransport pooled) {
+        if (pooled == null) return;
+        try {
+            pooled.transport().close();
+        } catch (MessagingException ex) {
+            log.debug("Failed to close SMTP connection", ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private record PooledTransport(Transport transport, int messagesSent, long lastUsedNanos) {
+
+        PooledTransport sent() {
+            return new PooledTransport(transport, messagesSent + 1, lastUsedNanos);
+        }
+
+        PooledTransport touched() {
+            return new PooledTransport(transport, messagesSent, System.nanoTime());
+        }
+
+        boolean exhausted(int maxMessages) {
+            return maxMessages > 0 && messagesSent >= maxMessages;
+        }
+
+        boolean expired(long idleTimeoutNanos) {
+            return System.nanoTime() - lastUsedNanos > idleTimeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.srinjaydg.enderbrary.email.enums;
+
+public enum OutboxStatus {
+    PENDING, SENDING, SENT, DEAD
+}
@@ -0,0 +1,45 @@
+package com.srinjaydg.enderbrary.email.models;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+import com.srinjaydg.enderbrary.email.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "email_outbox")
+public class EmailOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    private EmailTemplatename template;
+
+    private String recipient;
+    private String subject;
+
+    @Column(columnDefinition = "text")
+    private String payload;         // JSON encoded EmailModel for the template
+
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+}
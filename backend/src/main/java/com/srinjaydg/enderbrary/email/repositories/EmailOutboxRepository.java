@@ -0,0 +1,33 @@
+package com.srinjaydg.enderbrary.email.repositories;
+
+import com.srinjaydg.enderbrary.email.enums.OutboxStatus;
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Locks the next due messages, skipping rows another instance has already locked.
+     * SENDING rows are included so a message whose lease expired (e.g. after a crash) is retried.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT m FROM EmailOutboxMessage m
+            WHERE m.status IN :statuses AND m.nextAttemptAt <= :now
+            ORDER BY m.nextAttemptAt
+    """)
+    List<EmailOutboxMessage> findDueForUpdate(Collection<OutboxStatus> statuses, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteDelivered(OutboxStatus status, LocalDateTime before);
+}
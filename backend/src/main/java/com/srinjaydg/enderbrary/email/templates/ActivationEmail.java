@@ -0,0 +1,27 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.Map;
+
+public record ActivationEmail(
+        String userName,
+        String confirmationUrl,
+        String activationCode,
+        String subject
+) implements EmailModel {
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.ACTIVATE_ACCOUNT;
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "userName", userName,
+                "confirmationUrl", confirmationUrl,
+                "activation_code", activationCode
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.Map;
+
+public record BorrowApprovedEmail(
+        String borrowerName,
+        String lenderName,
+        String bookTitle,
+        String viewUrl
+) implements EmailModel {
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.BORROW_REQUEST_APPROVED;
+    }
+
+    @Override
+    public String subject() {
+        return "Your borrow request for \"" + bookTitle + "\" has been approved";
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "borrowerName", borrowerName,
+                "lenderName", lenderName,
+                "bookTitle", bookTitle,
+                "viewUrl", viewUrl
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.Map;
+
+public record BorrowRejectedEmail(
+        String borrowerName,
+        String lenderName,
+        String bookTitle,
+        String bookExploreUrl
+) implements EmailModel {
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.BORROW_REQUEST_REJECTED;
+    }
+
+    @Override
+    public String subject() {
+        return "Your borrow request for \"" + bookTitle + "\" was rejected";
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "borrowerName", borrowerName,
+                "lenderName", lenderName,
+                "bookTitle", bookTitle,
+                "bookExploreUrl", bookExploreUrl
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.Map;
+
+public record BorrowRequestEmail(
+        String lenderName,
+        String borrowerName,
+        String bookTitle,
+        String manageRequestUrl
+) implements EmailModel {
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.BORROW_REQUEST;
+    }
+
+    @Override
+    public String subject() {
+        return "New Borrow Request for " + bookTitle;
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "lenderName", lenderName,
+                "borrowerName", borrowerName,
+                "bookTitle", bookTitle,
+                "manageRequestUrl", manageRequestUrl
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One digest per borrower listing every borrowed book that is due soon or overdue.
+ * {@code moreCount} covers the books left out to keep the email short.
+ */
+public record DueDateReminderEmail(
+        String borrowerName,
+        List<Item> items,
+        int moreCount,
+        String viewUrl
+) implements EmailModel {
+
+    public record Item(
+            String bookTitle,
+            String lenderName,
+            LocalDateTime dueDate,
+            boolean overdue
+    ) {
+    }
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.DUE_DATE_REMINDER;
+    }
+
+    @Override
+    public String subject() {
+        long overdue = items.stream().filter(Item::overdue).count();
+        if (overdue > 0) {
+            return overdue == 1 ? "You have an overdue book" : "You have " + overdue + " overdue books";
+        }
+        int total = items.size() + moreCount;
+        return total == 1 ? "A book you borrowed is due soon" : total + " books you borrowed are due soon";
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "borrowerName", borrowerName,
+                "items", items,
+                "moreCount", moreCount,
+                "viewUrl", viewUrl
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Typed variables for one of the {@link EmailTemplatename} templates.
+ * Stored as JSON in the outbox and turned back into the same record before rendering.
+ */
+public sealed interface EmailModel permits ActivationEmail, BorrowRequestEmail, BorrowApprovedEmail,
+        BorrowRejectedEmail, ReturnRequestedEmail, ReturnCompletedEmail, DueDateReminderEmail {
+
+    EmailTemplatename template();
+
+    String subject();
+
+    Map<String, Object> variables();
+
+    /**
+     * Like {@link Map#of}, but tolerates null values (e.g. an OAuth user without a name).
+     */
+    static Map<String, Object> variablesOf(Object... keysAndValues) {
+        Map<String, Object> variables = new HashMap<>(keysAndValues.length);
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            variables.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return variables;
+    }
+}
@@ -0,0 +1,33 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.Map;
+
+public record ReturnCompletedEmail(
+        String borrowerName,
+        String lenderName,
+        String bookTitle,
+        String exploreUrl
+) implements EmailModel {
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.RETURN_REQUEST_COMPLETED;
+    }
+
+    @Override
+    public String subject() {
+        return "Return of \"" + bookTitle + "\" is complete";
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "borrowerName", borrowerName,
+                "lenderName", lenderName,
+                "bookTitle", bookTitle,
+                "exploreUrl", exploreUrl
+        );
+    }
+}
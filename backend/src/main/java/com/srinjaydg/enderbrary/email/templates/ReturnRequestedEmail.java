@@ -0,0 +1,33 @@
+package com.srinjaydg.enderbrary.email.templates;
+
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+
+import java.util.Map;
+
+public record ReturnRequestedEmail(
+        String lenderName,
+        String borrowerName,
+        String bookTitle,
+        String verifyReturnUrl
+) implements EmailModel {
+
+    @Override
+    public EmailTemplatename template() {
+        return EmailTemplatename.RETURN_REQUEST;
+    }
+
+    @Override
+    public String subject() {
+        return "Return requested for \"" + bookTitle + "\"";
+    }
+
+    @Override
+    public Map<String, Object> variables() {
+        return EmailModel.variablesOf(
+                "lenderName", lenderName,
+                "borrowerName", borrowerName,
+                "bookTitle", bookTitle,
+                "verifyReturnUrl", verifyReturnUrl
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.srinjaydg.enderbrary.exceptions;
+
+public class AmbiguousActivationCodeException extends RuntimeException {
+    public AmbiguousActivationCodeException(String message) {
+        super(message);
+    }
+}
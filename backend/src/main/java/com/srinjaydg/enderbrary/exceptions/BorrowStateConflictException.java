@@ -0,0 +1,7 @@
+package com.srinjaydg.enderbrary.exceptions;
+
+public class BorrowStateConflictException extends RuntimeException {
+    public BorrowStateConflictException(String message) {
+        super(message);
+    }
+}
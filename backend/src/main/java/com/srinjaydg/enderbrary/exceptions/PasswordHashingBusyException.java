@@ -0,0 +1,7 @@
+package com.srinjaydg.enderbrary.exceptions;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
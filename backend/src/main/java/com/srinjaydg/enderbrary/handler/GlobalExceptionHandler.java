@@ -1,9 +1,15 @@
 package com.srinjaydg.enderbrary.handler;
 
+import com.srinjaydg.enderbrary.exceptions.AmbiguousActivationCodeException;
+import com.srinjaydg.enderbrary.exceptions.BorrowStateConflictException;
 import com.srinjaydg.enderbrary.exceptions.ExistingEmailConflictException;
+import com.srinjaydg.enderbrary.exceptions.InvalidCursorException;
+import com.srinjaydg.enderbrary.exceptions.PasswordHashingBusyException;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -46,4 +52,36 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException e) {
+
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(BorrowStateConflictException.class)
+    public ResponseEntity<String> handleBorrowStateConflictException(BorrowStateConflictException e) {
+
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(AmbiguousActivationCodeException.class)
+    public ResponseEntity<String> handleAmbiguousActivationCodeException(AmbiguousActivationCodeException e) {
+
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> handleAuthenticationException(AuthenticationException e) {
+
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusyException(PasswordHashingBusyException e) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
 }
@@ -0,0 +1,47 @@
+package com.srinjaydg.enderbrary.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps every call on our Spring Data repositories in an observation, which becomes a tracing span
+ * (named after the repository method) when tracing is enabled. Off by default: the built-in
+ * {@code spring.data.repository.invocations} timer already covers latency.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "application.observability.repository-spans.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RepositoryObservationAspect {
+
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith("com.srinjaydg.enderbrary.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("this(org.springframework.data.repository.Repository) && within(org.springframework.data.repository.Repository+)")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = REPOSITORY_NAMES.get(joinPoint.getTarget().getClass());
+        String method = joinPoint.getSignature().getName();
+        return Observation.createNotStarted("enderbrary.repository", observationRegistry)
+                .contextualName(repository + "#" + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .<Object, Throwable>observeChecked(joinPoint::proceed);
+    }
+}
@@ -0,0 +1,64 @@
+package com.srinjaydg.enderbrary.security;
+
+import com.srinjaydg.enderbrary.user.models.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a {@link User} taken when {@link JWTFilter} resolves a token, so the instance
+ * {@link PrincipalCache} shares between request threads is never a managed entity. Services that need
+ * the entity itself load it by {@link #id()}.
+ */
+public record AuthenticatedUser(
+        UUID id,
+        String email,
+        List<GrantedAuthority> authorities,
+        boolean enabled,
+        boolean accountLocked
+) implements UserDetails {
+
+    public AuthenticatedUser {
+        authorities = List.copyOf(authorities);
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                List.copyOf(user.getAuthorities()),
+                Boolean.TRUE.equals(user.getEnabled()),
+                Boolean.TRUE.equals(user.getAccountLocked())
+        );
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Token-authenticated requests never check a password, so the hash is not kept.
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !accountLocked;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -1,5 +1,8 @@
 package com.srinjaydg.enderbrary.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,21 +13,29 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class JWTService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private final SecretKey signingKey;
+    private final JwtParser parser;     // thread-safe, built once with the signing key
 
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration; // In milliseconds
+    private final long jwtExpiration; // In milliseconds
 
-    @Value("${application.security.jwt.refresh-expiration}")
-    private long jwtRefreshExpiration; // In milliseconds
+    private final long jwtRefreshExpiration; // In milliseconds
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    public JWTService(
+            @Value("${application.security.jwt.secret-key}") String secretKey,
+            @Value("${application.security.jwt.expiration}") long jwtExpiration,
+            @Value("${application.security.jwt.refresh-expiration}") long jwtRefreshExpiration
+    ) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.jwtExpiration = jwtExpiration;
+        this.jwtRefreshExpiration = jwtRefreshExpiration;
     }
 
     /**
@@ -50,7 +61,7 @@ public class JWTService {
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
                 .claim ("authorities", authorities)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -77,7 +88,7 @@ public class JWTService {
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtRefreshExpiration))
                 .claim ("authorities", authorities)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -90,19 +101,9 @@ public class JWTService {
      */
 
     public boolean isAccessTokenValid(String token, String user_email) {
-        return extractClaim(token, "user_email", String.class).equals(user_email)
-                && !isAccessTokenExpired(token);
-    }
-
-    /**
-     * Checks if the given access token is expired.
-     *
-     * @param token the access token to check
-     * @return true if the access token is expired, false otherwise
-     */
-
-    private boolean isAccessTokenExpired(String token) {
-        return extractClaim(token, "exp", Date.class).before(new Date());
+        return parseToken(token)
+                .filter(claims -> user_email.equals(claims.get("user_email", String.class)))
+                .isPresent();
     }
 
     /**
@@ -114,19 +115,23 @@ public class JWTService {
      */
 
     public boolean isRefreshTokenValid(String token, String user_email) {
-        return extractClaim(token, "user_email", String.class).equals(user_email)
-                && !isRefreshTokenExpired(token);
+        return isAccessTokenValid(token, user_email);
     }
 
     /**
-     * Checks if the given refresh token is expired.
+     * Verifies the signature and expiry of the given token once and returns its claims,
+     * so callers can read several claims without re-parsing.
      *
-     * @param token the refresh token to check
-     * @return true if the refresh token is expired, false otherwise
+     * @param token the token to verify
+     * @return the verified claims, or empty if the token is malformed, tampered with or expired
      */
 
-    private boolean isRefreshTokenExpired(String token) {
-        return extractClaim(token, "exp", Date.class).before(new Date());
+    public Optional<Claims> parseToken(String token) {
+        try {
+            return Optional.of(parser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -140,10 +145,7 @@ public class JWTService {
      */
 
     public <T> T extractClaim(String token, String claimKey, Class<T> claimType) {
-        return Jwts
-                .parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload()
                 .get(claimKey, claimType);
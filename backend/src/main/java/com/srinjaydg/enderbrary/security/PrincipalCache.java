@@ -0,0 +1,103 @@
+package com.srinjaydg.enderbrary.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.srinjaydg.enderbrary.user.events.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of the principals {@link JWTFilter} resolves from token emails,
+ * so authenticated requests don't reload the user and its roles on every call. Entries are
+ * {@link AuthenticatedUser} snapshots, dropped on every {@link UserChangedEvent}.
+ * Hit/miss/eviction counts are published as {@code cache.*} metrics with {@code cache=jwt.principals}, tagged
+ * with the same keys Boot gives the Spring caches, since Prometheus drops meters whose tag keys differ by name.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String CACHE_NAME = "jwt.principals";
+
+    private final AsyncCache<String, AuthenticatedUser> cache;
+
+    public PrincipalCache(
+            @Value("${application.security.principal-cache.ttl:PT5M}") Duration ttl,
+            @Value("${application.security.principal-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME,
+                "cache.manager", "principalCache",
+                "name", CACHE_NAME);
+    }
+
+    /**
+     * Loads at most once per email without holding a map bin monitor across the JDBC call, which would
+     * pin the carrier of a virtual request thread. The first miss publishes an incomplete future and loads
+     * on its own thread; concurrent misses wait on that future. Because the future is in the cache for the
+     * whole load, {@link #evict} removes it, and a load that read pre-update state is never cached.
+     */
+    public AuthenticatedUser get(String email, Function<String, AuthenticatedUser> loader) {
+        CompletableFuture<AuthenticatedUser> cached = cache.getIfPresent(email);
+        if (cached == null) {
+            CompletableFuture<AuthenticatedUser> loading = new CompletableFuture<>();
+            cached = cache.asMap().putIfAbsent(email, loading);
+            if (cached == null) {
+                return load(email, loader, loading);
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private AuthenticatedUser load(String email, Function<String, AuthenticatedUser> loader, CompletableFuture<AuthenticatedUser> loading) {
+        try {
+            AuthenticatedUser loaded = loader.apply(email);
+            loading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            cache.asMap().remove(email, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached principal now and, inside a transaction, once more after commit
+     * so a request racing the update cannot re-cache the old state.
+     */
+    public void evict(String email) {
+        cache.synchronous().invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(email);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.email());
+    }
+}
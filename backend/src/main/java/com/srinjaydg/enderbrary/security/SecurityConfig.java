@@ -1,9 +1,13 @@
 package com.srinjaydg.enderbrary.security;
 
+import com.srinjaydg.enderbrary.security.ratelimit.RateLimitFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,9 +25,14 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfig {
     private final JWTFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, Environment environment) throws Exception {
+        // Scrapes are only anonymous when actuator listens on management.server.port, away from the public API port
+        String[] publicEndpoints = ManagementPortType.get (environment) == ManagementPortType.DIFFERENT
+                ? new String[] {"health", "prometheus"}
+                : new String[] {"health"};
         http
                 .cors(withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
@@ -43,7 +52,11 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/"
                         ).permitAll()
+                        .requestMatchers (EndpointRequest.to (publicEndpoints)).permitAll()
                         .requestMatchers (HttpMethod.GET, "/api/v1/books/search").permitAll()
+                        .requestMatchers (HttpMethod.GET, "/api/v1/books/search/cursor").permitAll()
+                        .requestMatchers (HttpMethod.GET, "/api/v1/books/suggest").permitAll()
+                        .requestMatchers (HttpMethod.GET, "/api/v1/books/cursor").permitAll()
                         .requestMatchers (HttpMethod.GET, "/api/v1/books").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -60,7 +73,8 @@ public class SecurityConfig {
                         })
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore (jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore (jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter (rateLimitFilter, JWTFilter.class);
 
         return http.build();
     }
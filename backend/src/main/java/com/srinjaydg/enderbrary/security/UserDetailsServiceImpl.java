@@ -1,21 +1,49 @@
 package com.srinjaydg.enderbrary.security;
 
+import com.srinjaydg.enderbrary.user.models.User;
 import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmail (email)
                 .orElseThrow (() -> new UsernameNotFoundException (email));
     }
+
+    /**
+     * What {@link JWTFilter} caches: a detached snapshot rather than the entity the login flow needs.
+     */
+    public AuthenticatedUser loadPrincipal(String email) throws UsernameNotFoundException {
+        return userRepository.findByEmail (email)
+                .map (AuthenticatedUser::from)
+                .orElseThrow (() -> new UsernameNotFoundException (email));
+    }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash
+     * uses an older BCrypt strength than the configured one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword (user.getUsername (), newPassword);
+        principalCache.evict (user.getUsername ());
+        if (user instanceof User entity) {
+            entity.setPassword (newPassword);
+        }
+        return user;
+    }
 }
@@ -0,0 +1,45 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buckets live in a size-bounded Caffeine map, so a client spraying new keys cannot grow memory without
+ * limit; an idle bucket is dropped once it would have refilled anyway. Each bucket is updated with a
+ * compare-and-set loop, never a lock.
+ */
+class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicReference<BucketState>> buckets;
+
+    InMemoryRateLimitStore(int maxKeys, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public long tryConsume(String key, RateLimitProperties.Limit limit) {
+        long now = System.nanoTime();
+        AtomicReference<BucketState> bucket = buckets.get(key,
+                k -> new AtomicReference<>(new BucketState(limit.capacity(), now)));
+        double perNano = limit.tokensPerSecond() / 1e9;
+        while (true) {
+            BucketState current = bucket.get();
+            double tokens = Math.min(limit.capacity(), current.tokens() + (now - current.refilledAt()) * perNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / perNano);
+            }
+            if (bucket.compareAndSet(current, new BucketState(tokens - 1, Math.max(now, current.refilledAt())))) {
+                return 0;
+            }
+        }
+    }
+
+    private record BucketState(double tokens, long refilledAt) {
+    }
+}
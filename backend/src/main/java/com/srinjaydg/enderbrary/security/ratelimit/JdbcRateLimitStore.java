@@ -0,0 +1,54 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Buckets shared by every instance through the {@code rate_limit_bucket} table (Postgres only).
+ * Refill and take happen in one upsert, so concurrent instances cannot both take the last token.
+ */
+@Slf4j
+class JdbcRateLimitStore implements RateLimitStore {
+
+    // Refill is computed from the database clock so instances do not need synchronised clocks
+    private static final String CONSUME = """
+            INSERT INTO rate_limit_bucket AS b (bucket_key, tokens, refilled_at)
+            VALUES (?, ? - 1, clock_timestamp())
+            ON CONFLICT (bucket_key) DO UPDATE
+            SET tokens = LEAST(?, b.tokens + EXTRACT(EPOCH FROM clock_timestamp() - b.refilled_at) * ?) - 1,
+                refilled_at = clock_timestamp()
+            WHERE LEAST(?, b.tokens + EXTRACT(EPOCH FROM clock_timestamp() - b.refilled_at) * ?) >= 1
+            RETURNING b.tokens
+            """;
+    private static final String AVAILABLE_IN = """
+            SELECT (1 - LEAST(?, tokens + EXTRACT(EPOCH FROM clock_timestamp() - refilled_at) * ?)) / ?
+            FROM rate_limit_bucket WHERE bucket_key = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    JdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long tryConsume(String key, RateLimitProperties.Limit limit) {
+        double capacity = limit.capacity();
+        double rate = limit.tokensPerSecond();
+        List<Double> taken = jdbcTemplate.queryForList(CONSUME, Double.class, key, capacity, capacity, rate, capacity, rate);
+        if (!taken.isEmpty()) return 0;
+
+        List<Double> seconds = jdbcTemplate.queryForList(AVAILABLE_IN, Double.class, capacity, rate, rate, key);
+        double wait = seconds.isEmpty() ? 1 / rate : seconds.getFirst();
+        return (long) Math.ceil(Math.max(wait, 0.001) * 1e9);
+    }
+
+    @Scheduled(cron = "${application.security.rate-limit.purge-cron:0 45 * * * *}")
+    public void purgeIdle() {
+        int purged = jdbcTemplate.update("DELETE FROM rate_limit_bucket WHERE refilled_at < clock_timestamp() - INTERVAL '1 day'");
+        log.debug("Purged {} idle rate limit buckets", purged);
+    }
+}
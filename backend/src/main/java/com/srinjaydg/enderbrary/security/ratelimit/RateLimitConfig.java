@@ -0,0 +1,47 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitStore rateLimitStore(RateLimitProperties properties, JdbcTemplate jdbcTemplate) {
+        if (properties.store() == RateLimitProperties.Store.JDBC) {
+            return new JdbcRateLimitStore(jdbcTemplate);
+        }
+        // An idle bucket can be forgotten once it would be full again
+        Duration idleTimeout = properties.routes().stream()
+                .flatMap(route -> Stream.of(route.perIp(), route.perAccount()))
+                .filter(Objects::nonNull)
+                .map(RateLimitProperties.Limit::refillPeriod)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+        return new InMemoryRateLimitStore(properties.maxKeys(), idleTimeout);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, RateLimitStore store,
+                                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, store, objectMapper, meterRegistry);
+    }
+
+    // Only runs inside the security chain (after JWTFilter), not a second time as a plain servlet filter
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
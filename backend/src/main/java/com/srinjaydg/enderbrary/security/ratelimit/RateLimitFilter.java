@@ -0,0 +1,229 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Rejects requests over their route's budget with 429 before any controller work (hashing, SMTP, inserts).
+ * Runs after {@code JWTFilter} so a signed-in user is limited by account. The IP bucket is checked first,
+ * so a flood from one address never gets as far as reading the body for the account key.
+ * The address is {@code getRemoteAddr()}, which {@code server.forward-headers-strategy} resolves to the client
+ * behind a trusted proxy; without it every client behind the load balancer would share one bucket.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login and registration bodies are tiny; anything bigger is not worth buffering for a key
+    private static final int MAX_BODY_FOR_KEY = 4096;
+
+    private final List<CompiledRoute> routes;
+    private final RateLimitStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.routes = !properties.enabled() ? List.of() : properties.routes().stream()
+                .map(route -> new CompiledRoute(route, PathPatternParser.defaultInstance.parse(route.path())))
+                .toList();
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        CompiledRoute route = match(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RateLimitProperties.Route config = route.config();
+
+        if (config.perIp() != null) {
+            long waitNanos = store.tryConsume(config.name() + ":ip:" + request.getRemoteAddr(), config.perIp());
+            if (waitNanos > 0) {
+                reject(response, config.name(), "ip", waitNanos);
+                return;
+            }
+        }
+
+        if (config.perAccount() != null) {
+            if (!hasPrincipal() && request.getParameter("email") == null && isJson(request)) {
+                request = new CachedBodyRequest(request, request.getInputStream().readNBytes(MAX_BODY_FOR_KEY + 1));
+            }
+            String account = accountKey(request);
+            if (account != null) {
+                long waitNanos = store.tryConsume(config.name() + ":account:" + account, config.perAccount());
+                if (waitNanos > 0) {
+                    reject(response, config.name(), "account", waitNanos);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private CompiledRoute match(HttpServletRequest request) {
+        PathContainer path = null;
+        for (CompiledRoute route : routes) {
+            if (route.config().method() != null && !route.config().method().equalsIgnoreCase(request.getMethod())) continue;
+            if (path == null) path = RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
+            if (route.pattern().matches(path)) return route;
+        }
+        return null;
+    }
+
+    private String accountKey(HttpServletRequest request) {
+        if (hasPrincipal()) {
+            return SecurityContextHolder.getContext().getAuthentication().getName().toLowerCase(Locale.ROOT);
+        }
+
+        String email = request.getParameter("email");
+        if (email == null && request instanceof CachedBodyRequest cached && cached.body.length <= MAX_BODY_FOR_KEY) {
+            try {
+                JsonNode node = objectMapper.readTree(cached.body).get("email");
+                email = node != null && node.isTextual() ? node.asText() : null;
+            } catch (IOException e) {
+                // Malformed JSON: the controller will reject it; only the IP bucket applies
+            }
+        }
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    private static boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private void reject(HttpServletResponse response, String route, String keyType, long waitNanos) throws IOException {
+        meterRegistry.counter("enderbrary.ratelimit.rejected", "route", route, "key", keyType).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType("application/json");
+        response.getWriter().write("""
+                    {
+                        "error": "Too Many Requests",
+                        "message": "Rate limit exceeded, retry in %d seconds"
+                    }
+                """.formatted(retryAfter));
+    }
+
+    private record CompiledRoute(RateLimitProperties.Route config, PathPattern pattern) {
+    }
+
+    /**
+     * Replays a body that was read up front to find the account key, followed by anything left unread.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final ServletInputStream replay;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) throws IOException {
+            super(request);
+            this.body = body;
+            ServletInputStream remainder = request.getInputStream();
+            ByteArrayInputStream head = new ByteArrayInputStream(body);
+            this.replay = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    int next = head.read();
+                    return next != -1 ? next : remainder.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = head.read(buffer, offset, length);
+                    return read != -1 ? read : remainder.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return head.available() == 0 && remainder.isFinished();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return head.available() > 0 || remainder.isReady();
+                }
+
+                // Non-blocking reads are driven by the original stream; the buffered head is offered
+                // before the end of the body is reported, in case nothing was left unread behind it
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    remainder.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            readListener.onDataAvailable();
+                        }
+
+                        @Override
+                        public void onAllDataRead() throws IOException {
+                            if (head.available() > 0) {
+                                readListener.onDataAvailable();
+                            }
+                            readListener.onAllDataRead();
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            readListener.onError(error);
+                        }
+                    });
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return replay;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(replay, encoding != null ? Charset.forName(encoding) : UTF_8));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Token buckets per route, bound from {@code application.security.rate-limit.*}.
+ * A route can limit per client IP, per account (email or signed-in user), or both.
+ */
+@ConfigurationProperties("application.security.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("memory") Store store,
+        @DefaultValue("100000") int maxKeys,
+        @DefaultValue List<Route> routes
+) {
+
+    public enum Store { MEMORY, JDBC }
+
+    public record Route(
+            String name,
+            String method,
+            String path,
+            Limit perIp,
+            Limit perAccount
+    ) {
+    }
+
+    /**
+     * Holds up to {@code capacity} requests and refills the whole bucket evenly over {@code refillPeriod}.
+     */
+    public record Limit(long capacity, Duration refillPeriod) {
+
+        public double tokensPerSecond() {
+            return capacity / (refillPeriod.toNanos() / 1e9);
+        }
+    }
+}
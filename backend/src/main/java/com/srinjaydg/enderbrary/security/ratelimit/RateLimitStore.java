@@ -0,0 +1,11 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket {@code key}, creating it full if needed.
+     *
+     * @return 0 if the request may proceed, otherwise how many nanoseconds until a token is available
+     */
+    long tryConsume(String key, RateLimitProperties.Limit limit);
+}
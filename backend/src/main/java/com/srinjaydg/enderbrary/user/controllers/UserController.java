@@ -1,19 +1,22 @@
 package com.srinjaydg.enderbrary.user.controllers;
 
 import com.srinjaydg.enderbrary.auth.AuthenticationService;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.book.response.BorrowRequestResponse;
+import com.srinjaydg.enderbrary.common.PageResponse;
 import com.srinjaydg.enderbrary.user.dto.UserResponse;
+import com.srinjaydg.enderbrary.user.dto.UserSummaryResponse;
 import com.srinjaydg.enderbrary.user.dto.UserUpdateRequest;
-import com.srinjaydg.enderbrary.user.models.User;
 import com.srinjaydg.enderbrary.user.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -40,9 +43,8 @@ public class UserController {
 
     @GetMapping("/send-verification-email")
     @Operation(summary = "Send Verification Email", description = "Sends a verification email to the user.")
-    public ResponseEntity<Void> sendVerificationEmail(Authentication connectedUser) throws MessagingException {
-        User user = (User) connectedUser.getPrincipal();
-        authenticationService.sendActivationEmail(user);
+    public ResponseEntity<Void> sendVerificationEmail(Authentication connectedUser) {
+        authenticationService.sendActivationEmail(connectedUser);
         return ResponseEntity.ok().build();
     }
 
@@ -53,9 +55,52 @@ public class UserController {
     }
 
     @GetMapping
-    @Operation(summary = "Get All Users", description = "Returns a list of all registered users.")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @Operation(summary = "Get All Users", description = "Returns a page of registered users with their book and borrow counts.")
+    public ResponseEntity<PageResponse<UserSummaryResponse>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userService.getAllUsers(page, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export Users", description = "Streams every user summary as newline-delimited JSON.")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService::exportUsers);
+    }
+
+    @GetMapping("/{id}/books")
+    @Operation(summary = "Get Books Posted by User", description = "Returns a page of the books a user has posted.")
+    public ResponseEntity<PageResponse<BookResponse>> getPostedBooks(@PathVariable UUID id,
+                                                                     @RequestParam(defaultValue = "0") int page,
+                                                                     @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(userService.getPostedBooks(id, page, size));
+    }
+
+    @GetMapping("/{id}/books/lent")
+    @Operation(summary = "Get Books Lent by User", description = "Returns a page of the books a user has lent to others.")
+    public ResponseEntity<PageResponse<BookResponse>> getLentBooks(@PathVariable UUID id,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(userService.getLentBooks(id, page, size));
+    }
+
+    @GetMapping("/{id}/books/borrowed")
+    @Operation(summary = "Get Books Borrowed by User", description = "Returns a page of the books a user has borrowed.")
+    public ResponseEntity<PageResponse<BookResponse>> getBorrowedBooks(@PathVariable UUID id,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(userService.getBorrowedBooks(id, page, size));
+    }
+
+    @GetMapping("/{id}/borrow-requests")
+    @Operation(summary = "Get Borrow Requests of User", description = "Returns a page of the borrow requests a user has made.")
+    public ResponseEntity<PageResponse<BorrowRequestResponse>> getBorrowRequests(@PathVariable UUID id,
+                                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                                 @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(userService.getBorrowRequests(id, page, size));
     }
 
     @DeleteMapping("/me")
@@ -66,8 +111,11 @@ public class UserController {
     }
 
     @GetMapping("/with-books")
-    @Operation(summary = "Get Users With Books", description = "Returns all users who have at least one book posted.")
-    public ResponseEntity<List<UserResponse>> getUsersWithBooks() {
-        return ResponseEntity.ok(userService.getUsersWithBooks());
+    @Operation(summary = "Get Users With Books", description = "Returns a page of users who have at least one book posted.")
+    public ResponseEntity<PageResponse<UserSummaryResponse>> getUsersWithBooks(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userService.getUsersWithBooks(page, size));
     }
 }
@@ -0,0 +1,22 @@
+package com.srinjaydg.enderbrary.user.dto;
+
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * List view of a user: the related collections are reduced to counts and served
+ * by the paginated {@code /api/v1/users/{id}/...} sub-resources instead.
+ */
+@Builder
+public record UserSummaryResponse(
+        UUID id,
+        String name,
+        String email,
+        String imageUrl,
+        Boolean accountLocked,
+        Boolean enabled,
+        long booksPosted,
+        long booksLent,
+        long booksBorrowed
+) {}
@@ -0,0 +1,6 @@
+package com.srinjaydg.enderbrary.user.events;
+
+/**
+ * Published whenever a user row is updated or removed, so state derived from it can be dropped.
+ */
+public record UserChangedEvent(String email) {}
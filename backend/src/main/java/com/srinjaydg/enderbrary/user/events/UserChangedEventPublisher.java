@@ -0,0 +1,24 @@
+package com.srinjaydg.enderbrary.user.events;
+
+import com.srinjaydg.enderbrary.user.models.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Entity listener that turns every flushed change to a {@link User} into a {@link UserChangedEvent},
+ * so writes to {@code enabled}, {@code accountLocked} or the roles reach the principal cache without each
+ * writer having to remember it. Bulk JPQL updates bypass entity callbacks and publish nothing.
+ */
+@RequiredArgsConstructor
+public class UserChangedEventPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    void publish(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
+    }
+}
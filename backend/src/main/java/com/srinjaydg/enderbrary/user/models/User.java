@@ -2,16 +2,19 @@ package com.srinjaydg.enderbrary.user.models;
 
 import com.srinjaydg.enderbrary.book.models.Book;
 import com.srinjaydg.enderbrary.book.models.BorrowRequest;
+import com.srinjaydg.enderbrary.user.events.UserChangedEventPublisher;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +25,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @Data
 @Table(name = "users")
+@EntityListeners(UserChangedEventPublisher.class)
 public class User implements UserDetails, Principal {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -35,6 +39,9 @@ public class User implements UserDetails, Principal {
     private Boolean accountLocked;
     private Boolean enabled;
 
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @ManyToMany(fetch = FetchType.EAGER)
     private List<Role> roles;
 
@@ -1,12 +1,49 @@
 package com.srinjaydg.enderbrary.user.repositories;
 
 import com.srinjaydg.enderbrary.user.models.Token;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    Optional<Token> findByToken(String token);
+
+    // users_email_key, then idx_token_user_token
+    @Query("""
+            SELECT t FROM Token t JOIN FETCH t.user u
+            WHERE u.email = :email AND t.token = :token AND t.validatedAt IS NULL
+    """)
+    Optional<Token> findPendingByEmailAndToken(String email, String token);
+
+    // A bare 6-digit code is not unique across users; callers ask for two rows to detect that
+    @Query("""
+            SELECT t FROM Token t JOIN FETCH t.user
+            WHERE t.token = :token AND t.validatedAt IS NULL
+    """)
+    List<Token> findPendingByToken(String token, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.user.id = :userId AND t.validatedAt IS NULL")
+    int deletePendingByUserId(UUID userId);
+
+    /**
+     * Deletes up to {@code limit} tokens that expired before {@code cutoff}, oldest first.
+     * Used tokens are included: every token expires a few minutes after it is issued.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM token WHERE id IN (
+                SELECT id FROM token WHERE expires_at < :cutoff ORDER BY expires_at LIMIT :limit)
+    """, nativeQuery = true)
+    int deleteExpired(LocalDateTime cutoff, int limit);
 }
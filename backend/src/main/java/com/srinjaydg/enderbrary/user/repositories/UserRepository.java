@@ -1,21 +1,68 @@
 package com.srinjaydg.enderbrary.user.repositories;
 
+import com.srinjaydg.enderbrary.user.dto.UserSummaryResponse;
 import com.srinjaydg.enderbrary.user.models.User;
 import io.micrometer.common.KeyValues;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
 
+    // Offset pages are ordered by the primary key so consecutive pages neither repeat nor skip rows
+    @Query(value = """
+        SELECT new com.srinjaydg.enderbrary.user.dto.UserSummaryResponse(
+            u.id, u.name, u.email, u.imageUrl, u.accountLocked, u.enabled,
+            (SELECT COUNT(b) FROM Book b WHERE b.owner = u),
+            (SELECT COUNT(r) FROM BorrowRequest r WHERE r.lender = u),
+            (SELECT COUNT(r) FROM BorrowRequest r WHERE r.borrower = u))
+        FROM User u
+        ORDER BY u.id
+   """, countQuery = """
+        SELECT COUNT(u) FROM User u
+   """)
+    Page<UserSummaryResponse> findSummaries(Pageable pageable);
+
+    @Query(value = """
+        SELECT new com.srinjaydg.enderbrary.user.dto.UserSummaryResponse(
+            u.id, u.name, u.email, u.imageUrl, u.accountLocked, u.enabled,
+            (SELECT COUNT(b) FROM Book b WHERE b.owner = u),
+            (SELECT COUNT(r) FROM BorrowRequest r WHERE r.lender = u),
+            (SELECT COUNT(r) FROM BorrowRequest r WHERE r.borrower = u))
+        FROM User u
+        WHERE EXISTS (SELECT 1 FROM Book b WHERE b.owner = u)
+        ORDER BY u.id
+   """, countQuery = """
+        SELECT COUNT(u) FROM User u
+        WHERE EXISTS (SELECT 1 FROM Book b WHERE b.owner = u)
+   """)
+    Page<UserSummaryResponse> findSummariesWithAtLeastOneBook(Pageable pageable);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
     @Query("""
-        SELECT u FROM User u WHERE SIZE(u.postedBooks) > 0
+        SELECT new com.srinjaydg.enderbrary.user.dto.UserSummaryResponse(
+            u.id, u.name, u.email, u.imageUrl, u.accountLocked, u.enabled,
+            (SELECT COUNT(b) FROM Book b WHERE b.owner = u),
+            (SELECT COUNT(r) FROM BorrowRequest r WHERE r.lender = u),
+            (SELECT COUNT(r) FROM BorrowRequest r WHERE r.borrower = u))
+        FROM User u
    """)
-    List<User> findUsersWithAtLeastOneBook();
+    Stream<UserSummaryResponse> streamSummaries();
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(String email, String password);
 }
@@ -1,45 +1,77 @@
 package com.srinjaydg.enderbrary.user.services;
 
+import com.srinjaydg.enderbrary.book.events.BookChangedEvent;
+import com.srinjaydg.enderbrary.book.repositories.BookRepository;
+import com.srinjaydg.enderbrary.book.repositories.BorrowRequestRepository;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.book.response.BorrowRequestResponse;
+import com.srinjaydg.enderbrary.common.NdjsonWriter;
+import com.srinjaydg.enderbrary.common.PageResponse;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
 import com.srinjaydg.enderbrary.user.dto.UserResponse;
+import com.srinjaydg.enderbrary.user.dto.UserSummaryResponse;
 import com.srinjaydg.enderbrary.user.dto.UserUpdateRequest;
 import com.srinjaydg.enderbrary.user.mappers.UserMapper;
 import com.srinjaydg.enderbrary.user.models.User;
 import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "enderbrary.service")
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final BookRepository bookRepository;
+    private final BorrowRequestRepository borrowRequestRepository;
+    private final NdjsonWriter ndjsonWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserResponse getCurrentUser(Authentication connectedUser) {
-        User principal = (User) connectedUser.getPrincipal();
-        User user = userRepository.findByEmail(principal.getEmail())
+        AuthenticatedUser principal = (AuthenticatedUser) connectedUser.getPrincipal();
+        User user = userRepository.findById(principal.id())
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
         return userMapper.toUserResponse(user);
     }
 
     @Transactional
     public UserResponse updateCurrentUser(Authentication connectedUser, UserUpdateRequest request) {
-        User principal = (User) connectedUser.getPrincipal();
-        User user = userRepository.findByEmail(principal.getEmail())
+        AuthenticatedUser principal = (AuthenticatedUser) connectedUser.getPrincipal();
+        User user = userRepository.findById(principal.id())
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
-        if (request.name() != null) user.setName(request.name());
-        if (request.imageUrl() != null) user.setImageUrl(request.imageUrl());
+        boolean ownerDetailsChanged = false;
+        if (request.name() != null && !request.name().equals(user.getName())) {
+            user.setName(request.name());
+            ownerDetailsChanged = true;
+        }
+        if (request.imageUrl() != null && !request.imageUrl().equals(user.getImageUrl())) {
+            user.setImageUrl(request.imageUrl());
+            ownerDetailsChanged = true;
+        }
 
         userRepository.save(user);
+        if (ownerDetailsChanged) {
+            // Cached book responses embed the owner's name and image
+            bookRepository.findIdsByOwnerId(user.getId())
+                    .forEach(bookId -> eventPublisher.publishEvent(new BookChangedEvent(bookId)));
+        }
         return userMapper.toUserResponse(user);
     }
 
@@ -49,27 +81,67 @@ public class UserService {
         return userMapper.toUserResponse(user);
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(userMapper::toUserResponse)
-                .toList();
+    public PageResponse<UserSummaryResponse> getAllUsers(int page, int size) {
+        return toPageResponse(userRepository.findSummaries(PageRequest.of(page, size)));
     }
 
     @Transactional
     public void deactivateCurrentUser(Authentication connectedUser) {
-        User principal = (User) connectedUser.getPrincipal();
-        User user = userRepository.findByEmail(principal.getEmail())
+        AuthenticatedUser principal = (AuthenticatedUser) connectedUser.getPrincipal();
+        User user = userRepository.findById(principal.id())
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
         user.setEnabled(false);
         userRepository.save(user);
         log.info("Deactivated user with ID: {}", user.getId());
     }
 
-    public List<UserResponse> getUsersWithBooks() {
-        return userRepository.findUsersWithAtLeastOneBook()
-                .stream()
-                .map(userMapper::toUserResponse)
-                .toList();
+    public PageResponse<UserSummaryResponse> getUsersWithBooks(int page, int size) {
+        return toPageResponse(userRepository.findSummariesWithAtLeastOneBook(PageRequest.of(page, size)));
+    }
+
+    @Transactional
+    public void exportUsers(OutputStream out) throws IOException {
+        try (Stream<UserSummaryResponse> users = userRepository.streamSummaries()) {
+            long exported = ndjsonWriter.write(users, UserSummaryResponse.class, out);
+            log.info("Exported {} users", exported);
+        }
+    }
+
+    public PageResponse<BookResponse> getPostedBooks(UUID userId, int page, int size) {
+        requireUser(userId);
+        return toPageResponse(bookRepository.findResponsesByOwnerId(userId, PageRequest.of(page, size)));
+    }
+
+    public PageResponse<BookResponse> getLentBooks(UUID userId, int page, int size) {
+        requireUser(userId);
+        return toPageResponse(borrowRequestRepository.findLentBookResponses(userId, PageRequest.of(page, size)));
+    }
+
+    public PageResponse<BookResponse> getBorrowedBooks(UUID userId, int page, int size) {
+        requireUser(userId);
+        return toPageResponse(borrowRequestRepository.findBorrowedBookResponses(userId, PageRequest.of(page, size)));
+    }
+
+    public PageResponse<BorrowRequestResponse> getBorrowRequests(UUID userId, int page, int size) {
+        requireUser(userId);
+        return toPageResponse(borrowRequestRepository.findResponsesByBorrowerId(userId, PageRequest.of(page, size)));
+    }
+
+    private void requireUser(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+    }
+
+    private static <T> PageResponse<T> toPageResponse(Page<T> page) {
+        return new PageResponse<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isFirst(),
+                page.isLast()
+        );
     }
 }
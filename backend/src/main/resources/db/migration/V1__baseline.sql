@@ -0,0 +1,101 @@
+-- Baseline of the schema previously generated by ddl-auto=update.
+-- Every statement is idempotent so it also runs cleanly against databases created that way.
+
+CREATE SEQUENCE IF NOT EXISTS token_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id             uuid NOT NULL,
+    name           varchar(255),
+    email          varchar(255),
+    password       varchar(255),
+    image_url      varchar(255),
+    account_locked boolean,
+    enabled        boolean,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT users_email_key UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS role (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255),
+    CONSTRAINT role_pkey PRIMARY KEY (id),
+    CONSTRAINT role_name_key UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS users_roles (
+    users_id uuid   NOT NULL,
+    roles_id bigint NOT NULL,
+    CONSTRAINT fkml90kef4w2jy7oxyqv742tsfc FOREIGN KEY (users_id) REFERENCES users,
+    CONSTRAINT fk15d410tj6juko0sq9k4km60xq FOREIGN KEY (roles_id) REFERENCES role
+);
+
+CREATE TABLE IF NOT EXISTS token (
+    id           bigint NOT NULL,
+    token        varchar(255),
+    created_at   timestamp(6),
+    expires_at   timestamp(6),
+    validated_at timestamp(6),
+    user_id      uuid   NOT NULL,
+    CONSTRAINT token_pkey PRIMARY KEY (id),
+    CONSTRAINT fkj8rfw4x0wjjyibfqq566j4qng FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS book (
+    id           uuid NOT NULL,
+    title        varchar(255),
+    author       varchar(255),
+    description  varchar(255),
+    category     varchar(255),
+    cover_url    varchar(255),
+    is_available boolean,
+    is_archived  boolean,
+    owner_id     uuid,
+    version      bigint DEFAULT 0,
+    updated_at   timestamp(6),
+    CONSTRAINT book_pkey PRIMARY KEY (id),
+    CONSTRAINT fkf3kbv8714eja4s6cga06b8agc FOREIGN KEY (owner_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS borrow_request (
+    id           uuid NOT NULL,
+    book_id      uuid,
+    borrower_id  uuid,
+    lender_id    uuid,
+    request_date timestamp(6),
+    due_date     timestamp(6),
+    status       varchar(255),
+    version      bigint DEFAULT 0,
+    updated_at   timestamp(6),
+    CONSTRAINT borrow_request_pkey PRIMARY KEY (id),
+    CONSTRAINT borrow_request_status_check
+        CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'RETURNED', 'RETURN_REQUESTED')),
+    CONSTRAINT fkcdd30i5ib10ukktkjnkigr7va FOREIGN KEY (book_id) REFERENCES book,
+    CONSTRAINT fkd2in4dbn3jgj0fe8cvn14df9n FOREIGN KEY (borrower_id) REFERENCES users,
+    CONSTRAINT fkir3w0ruy9ht389qjd8v3nk9ip FOREIGN KEY (lender_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              uuid    NOT NULL,
+    template        varchar(255),
+    recipient       varchar(255),
+    subject         varchar(255),
+    payload         varchar(4000),
+    status          varchar(255),
+    attempts        integer NOT NULL,
+    next_attempt_at timestamp(6),
+    last_error      varchar(1000),
+    created_at      timestamp(6),
+    sent_at         timestamp(6),
+    CONSTRAINT email_outbox_pkey PRIMARY KEY (id),
+    CONSTRAINT email_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD')),
+    CONSTRAINT email_outbox_template_check CHECK (template IN ('ACTIVATE_ACCOUNT', 'BORROW_REQUEST',
+        'BORROW_REQUEST_APPROVED', 'BORROW_REQUEST_REJECTED', 'RETURN_REQUEST', 'RETURN_REQUEST_COMPLETED'))
+);
+
+-- Columns added after some databases were first created
+ALTER TABLE book ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+ALTER TABLE book ADD COLUMN IF NOT EXISTS updated_at timestamp(6);
+ALTER TABLE borrow_request ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+ALTER TABLE borrow_request ADD COLUMN IF NOT EXISTS updated_at timestamp(6);
+UPDATE book SET version = 0 WHERE version IS NULL;
+UPDATE borrow_request SET version = 0 WHERE version IS NULL;
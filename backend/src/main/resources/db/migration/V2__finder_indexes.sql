@@ -0,0 +1,21 @@
+-- Indexes matched to the derived finders in BorrowRequestRepository, BookRepository and TokenRepository
+
+-- findByBorrowerId, findByBorrowerIdAndStatus
+CREATE INDEX IF NOT EXISTS idx_borrow_request_borrower_status ON borrow_request (borrower_id, status);
+-- findByLenderId, findByLenderIdAndStatus
+CREATE INDEX IF NOT EXISTS idx_borrow_request_lender_status ON borrow_request (lender_id, status);
+-- findByBookIdAndLenderId, findByBookIdAndStatusAndIdNot
+CREATE INDEX IF NOT EXISTS idx_borrow_request_book_lender ON borrow_request (book_id, lender_id);
+CREATE INDEX IF NOT EXISTS idx_borrow_request_book_pending ON borrow_request (book_id) WHERE status = 'PENDING';
+
+-- findByOwnerId, findByOwnerIdAndIsArchivedTrue, findByIdAndOwnerId
+CREATE INDEX IF NOT EXISTS idx_book_owner_archived ON book (owner_id, is_archived);
+-- Catalog listing (offset and keyset) over available, non-archived books
+CREATE INDEX IF NOT EXISTS idx_book_available ON book (id) WHERE is_available = true AND is_archived = false;
+
+-- findByToken
+CREATE INDEX IF NOT EXISTS idx_token_token ON token (token);
+CREATE INDEX IF NOT EXISTS idx_token_user ON token (user_id);
+
+-- EmailOutboxRepository.findDueForUpdate
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox (next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
@@ -0,0 +1,31 @@
+-- Indexes behind BookRepository.searchIdsByRank / searchHitsAfter (full-text) and BookRepository.suggest (typeahead)
+
+CREATE INDEX IF NOT EXISTS idx_book_search ON book USING GIN (
+    (setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+     || setweight(to_tsvector('simple', coalesce(author, '')), 'B'))
+) WHERE is_available = true AND is_archived = false;
+
+-- Prefix typeahead ("hob%")
+CREATE INDEX IF NOT EXISTS idx_book_title_prefix ON book (LOWER(title) text_pattern_ops)
+    WHERE is_available = true AND is_archived = false;
+CREATE INDEX IF NOT EXISTS idx_book_author_prefix ON book (LOWER(author) text_pattern_ops)
+    WHERE is_available = true AND is_archived = false;
+
+-- Infix typeahead ("%hob%") needs pg_trgm. Managed databases may not let us install it;
+-- suggestions still work without these indexes, only slower.
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN insufficient_privilege OR undefined_file THEN
+    RAISE WARNING 'pg_trgm is not available, skipping trigram indexes';
+END $$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_book_title_trgm ON book USING GIN (LOWER(title) gin_trgm_ops)
+            WHERE is_available = true AND is_archived = false;
+        CREATE INDEX IF NOT EXISTS idx_book_author_trgm ON book USING GIN (LOWER(author) gin_trgm_ops)
+            WHERE is_available = true AND is_archived = false;
+    END IF;
+END $$;
@@ -0,0 +1,3 @@
+-- Keyset listings in BorrowRequestRepository walk (request_date desc, id desc) per borrower and per lender
+CREATE INDEX IF NOT EXISTS idx_borrow_request_borrower_date ON borrow_request (borrower_id, request_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_borrow_request_lender_date ON borrow_request (lender_id, request_date DESC, id DESC);
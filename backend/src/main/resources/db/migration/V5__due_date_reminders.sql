@@ -0,0 +1,16 @@
+-- Due-date reminders: DueDateReminderService walks (status, due_date) in chunks and stamps what it handled
+ALTER TABLE borrow_request ADD COLUMN IF NOT EXISTS overdue_at timestamp(6);
+ALTER TABLE borrow_request ADD COLUMN IF NOT EXISTS reminder_sent_at timestamp(6);
+
+CREATE INDEX IF NOT EXISTS idx_borrow_request_status_due ON borrow_request (status, due_date, id);
+
+-- One row per scheduled job; whoever holds an unexpired lease runs it
+CREATE TABLE IF NOT EXISTS scheduler_lease (
+    name         varchar(100) NOT NULL PRIMARY KEY,
+    owner        varchar(255) NOT NULL,
+    locked_until timestamp(6) NOT NULL
+);
+
+ALTER TABLE email_outbox DROP CONSTRAINT IF EXISTS email_outbox_template_check;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_template_check CHECK (template IN ('ACTIVATE_ACCOUNT', 'BORROW_REQUEST',
+    'BORROW_REQUEST_APPROVED', 'BORROW_REQUEST_REJECTED', 'RETURN_REQUEST', 'RETURN_REQUEST_COMPLETED', 'DUE_DATE_REMINDER'));
@@ -0,0 +1,14 @@
+-- Activation codes are only unique per user; keep the newest of any duplicate pair before enforcing that
+DELETE FROM token t USING token newer
+WHERE t.user_id = newer.user_id AND t.token = newer.token AND t.id < newer.id;
+
+-- findPendingByEmailAndToken, deletePendingByUserId; also covers lookups by user_id alone
+CREATE UNIQUE INDEX IF NOT EXISTS idx_token_user_token ON token (user_id, token);
+DROP INDEX IF EXISTS idx_token_user;
+
+-- findPendingByToken only ever matches codes that have not been used yet
+CREATE INDEX IF NOT EXISTS idx_token_pending ON token (token) WHERE validated_at IS NULL;
+DROP INDEX IF EXISTS idx_token_token;
+
+-- ActivationTokenPurger deletes in expires_at order
+CREATE INDEX IF NOT EXISTS idx_token_expires ON token (expires_at);
@@ -0,0 +1,6 @@
+-- Shared token buckets for application.security.rate-limit.store=jdbc; losing them on a crash only resets limits
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_bucket (
+    bucket_key  varchar(512)     NOT NULL PRIMARY KEY,
+    tokens      double precision NOT NULL,
+    refilled_at timestamptz      NOT NULL
+);
@@ -0,0 +1,3 @@
+-- A due-date digest (15 items with 255-character titles and lender names) serialises to ~8 KB,
+-- which no longer fits the original varchar(4000)
+ALTER TABLE email_outbox ALTER COLUMN payload TYPE text;
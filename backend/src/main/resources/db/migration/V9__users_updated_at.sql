@@ -0,0 +1,2 @@
+-- Book and borrow request ETags include the updated_at of the users they show, so a name or image change revalidates them
+ALTER TABLE users ADD COLUMN IF NOT EXISTS updated_at timestamp(6);
@@ -0,0 +1,99 @@
+package com.srinjaydg.enderbrary.book.repositories;
+
+import com.srinjaydg.enderbrary.book.models.Book;
+import com.srinjaydg.enderbrary.book.response.BookResponse;
+import com.srinjaydg.enderbrary.user.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database=h2",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookRepositoryStatementCountTests {
+
+	private static final int PAGE_SIZE = 10;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seed() {
+		for (int u = 0; u < PAGE_SIZE; u++) {
+			User owner = entityManager.persist(User.builder()
+					.name("Owner " + u)
+					.email("owner" + u + "@example.com")
+					.accountLocked(false)
+					.enabled(true)
+					.build());
+			for (int b = 0; b < 3; b++) {
+				entityManager.persist(Book.builder()
+						.title("Title " + u + "-" + b)
+						.author("Author " + u)
+						.isAvailable(true)
+						.isArchived(false)
+						.owner(owner)
+						.build());
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void offsetPageRunsOneSelectAndOneCount() {
+		Page<BookResponse> page = bookRepository.findAvailableResponses(PageRequest.of(1, PAGE_SIZE));
+
+		assertThat(page.getContent()).hasSize(PAGE_SIZE)
+				.allSatisfy(book -> assertThat(book.ownerEmail()).isNotNull());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void keysetPageRunsOneSelect() {
+		List<BookResponse> page = bookRepository.findAvailableResponsesAfter(new UUID(0, 0), Limit.of(PAGE_SIZE + 1));
+
+		assertThat(page).hasSize(PAGE_SIZE + 1)
+				.allSatisfy(book -> assertThat(book.ownerName()).isNotNull());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void loadingSearchHitsRunsOneSelect() {
+		List<UUID> ids = bookRepository.findAvailableResponsesAfter(new UUID(0, 0), Limit.of(PAGE_SIZE)).stream()
+				.map(BookResponse::id)
+				.toList();
+		statistics.clear();
+
+		List<BookResponse> books = bookRepository.findResponsesByIdIn(ids);
+
+		assertThat(books).hasSize(PAGE_SIZE)
+				.allSatisfy(book -> assertThat(book.ownerImageUrl()).isNull());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,137 @@
+package com.srinjaydg.enderbrary.book.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srinjaydg.enderbrary.book.response.BookImportError;
+import com.srinjaydg.enderbrary.book.response.BookImportResponse;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class BookImportServiceTests {
+
+	private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+	private static final String REFUSED_TITLE = "Refused";
+
+	private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+
+	private final BookImportService importService = new BookImportService(
+			jdbcTemplate, mock(PlatformTransactionManager.class), new ObjectMapper(), event -> {}, 3);
+
+	private final Authentication owner = new UsernamePasswordAuthenticationToken(
+			new AuthenticatedUser(UUID.randomUUID(), "importer@example.com", List.of(), true, false), null);
+
+	@Test
+	void csvQuotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+		BookImportResponse response = importCsv("""
+				title,author,description
+				"Dune, Part One",Frank Herbert,plain
+				"The \"\"Hobbit\"\"",Tolkien,"first line
+				second line"
+				Emma,Jane Austen,
+				""");
+
+		assertThat(response.imported()).isEqualTo(3);
+		assertThat(response.rejected()).isZero();
+		assertThat(jdbcTemplate.inserted).extracting(row -> row[1], row -> row[2], row -> row[3]).containsExactly(
+				tuple("Dune, Part One", "Frank Herbert", "plain"),
+				tuple("The \"Hobbit\"", "Tolkien", "first line\nsecond line"),
+				tuple("Emma", "Jane Austen", null));
+	}
+
+	@Test
+	void csvErrorsReportThePhysicalLineAfterAMultiLineRecord() throws IOException {
+		BookImportResponse response = importCsv("""
+				title,author
+				"Spans
+				two lines",Someone
+				,Missing Title
+				""");
+
+		assertThat(response.imported()).isEqualTo(1);
+		assertThat(response.errors()).containsExactly(new BookImportError(4, "title is required"));
+	}
+
+	@Test
+	void ndjsonRejectsMalformedAndInvalidLinesAndKeepsTheRest() throws IOException {
+		BookImportResponse response = importNdjson("""
+				{"title":"Dune","author":"Frank Herbert"}
+				{"title":"Broken",
+				{"author":"No Title"}
+
+				{"title":"Emma","author":"Jane Austen"}
+				""");
+
+		assertThat(response.imported()).isEqualTo(2);
+		assertThat(response.rejected()).isEqualTo(2);
+		assertThat(response.errors()).extracting(BookImportError::line).containsExactly(2L, 3L);
+		assertThat(response.errors().get(0).message()).startsWith("Invalid JSON");
+		assertThat(response.errors().get(1).message()).isEqualTo("title is required");
+	}
+
+	@Test
+	void aRowTheDatabaseRefusesIsRejectedAloneWithItsOwnError() throws IOException {
+		BookImportResponse response = importNdjson("""
+				{"title":"Dune","author":"Frank Herbert"}
+				{"title":"%s","author":"Someone"}
+				{"title":"Emma","author":"Jane Austen"}
+				{"title":"Persuasion","author":"Jane Austen"}
+				""".formatted(REFUSED_TITLE));
+
+		assertThat(response.imported()).isEqualTo(3);
+		assertThat(response.errors()).containsExactly(new BookImportError(2, "Insert failed: refused " + REFUSED_TITLE));
+		assertThat(jdbcTemplate.inserted).extracting(row -> row[1]).containsExactly("Dune", "Emma", "Persuasion");
+	}
+
+	private BookImportResponse importCsv(String body) throws IOException {
+		return importService.importBooks(new ByteArrayInputStream(body.getBytes(UTF_8)), CSV, owner);
+	}
+
+	private BookImportResponse importNdjson(String body) throws IOException {
+		return importService.importBooks(new ByteArrayInputStream(body.getBytes(UTF_8)), MediaType.APPLICATION_NDJSON, owner);
+	}
+
+	/**
+	 * Keeps the rows instead of writing them and refuses any row titled {@link #REFUSED_TITLE},
+	 * failing the whole batch that contains it like a constraint violation would.
+	 */
+	private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+		private final List<Object[]> inserted = new ArrayList<>();
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			batchArgs.forEach(RecordingJdbcTemplate::check);
+			inserted.addAll(batchArgs);
+			return new int[batchArgs.size()];
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			check(args);
+			inserted.add(args);
+			return 1;
+		}
+
+		private static void check(Object[] row) {
+			if (REFUSED_TITLE.equals(row[1])) {
+				throw new DataIntegrityViolationException("refused " + row[1]);
+			}
+		}
+	}
+}
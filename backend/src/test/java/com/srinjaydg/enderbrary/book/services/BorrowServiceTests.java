@@ -0,0 +1,214 @@
+package com.srinjaydg.enderbrary.book.services;
+
+import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
+import com.srinjaydg.enderbrary.book.models.Book;
+import com.srinjaydg.enderbrary.book.models.BorrowRequest;
+import com.srinjaydg.enderbrary.book.repositories.BookRepository;
+import com.srinjaydg.enderbrary.book.repositories.BorrowRequestRepository;
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import com.srinjaydg.enderbrary.email.repositories.EmailOutboxRepository;
+import com.srinjaydg.enderbrary.exceptions.BorrowStateConflictException;
+import com.srinjaydg.enderbrary.security.AuthenticatedUser;
+import com.srinjaydg.enderbrary.user.models.User;
+import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database=h2",
+		"application.mailing.outbox.initial-delay=PT1H"
+})
+class BorrowServiceTests {
+
+	@Autowired
+	private BorrowService borrowService;
+
+	@Autowired
+	private BorrowRequestRepository borrowRequestRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<User> users = new ArrayList<>();
+	private final List<BorrowRequest> requests = new ArrayList<>();
+
+	private User owner;
+	private Authentication lender;
+	private Book book;
+
+	@BeforeEach
+	void seed() {
+		owner = user("borrow-lender@example.com");
+		lender = new UsernamePasswordAuthenticationToken(AuthenticatedUser.from(owner), null);
+		book = bookRepository.save(Book.builder()
+				.title("Dune")
+				.author("Frank Herbert")
+				.isAvailable(true)
+				.isArchived(false)
+				.owner(owner)
+				.build());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		outboxRepository.deleteAll(outboxRepository.findAll().stream()
+				.filter(message -> message.getRecipient().startsWith("borrow-"))
+				.toList());
+		borrowRequestRepository.deleteAllById(requests.stream().map(BorrowRequest::getId).toList());
+		bookRepository.deleteById(book.getId());
+		userRepository.deleteAll(users);
+	}
+
+	@Test
+	void approveRejectsOnlyThePendingCompetitorsAndNotifiesThem() {
+		BorrowRequest approved = request("borrow-a@example.com", BorrowStatus.PENDING);
+		BorrowRequest competitor = request("borrow-b@example.com", BorrowStatus.PENDING);
+		BorrowRequest alreadyRejected = request("borrow-c@example.com", BorrowStatus.REJECTED);
+
+		borrowService.approve(approved.getId(), lender);
+
+		assertThat(status(approved)).isEqualTo(BorrowStatus.APPROVED);
+		assertThat(status(competitor)).isEqualTo(BorrowStatus.REJECTED);
+		assertThat(bookRepository.findById(book.getId()).orElseThrow().getIsAvailable()).isFalse();
+		assertThat(queued(EmailTemplatename.BORROW_REQUEST_APPROVED)).containsExactly("borrow-a@example.com");
+		assertThat(queued(EmailTemplatename.BORROW_REQUEST_REJECTED)).containsExactly("borrow-b@example.com");
+		assertThat(status(alreadyRejected)).isEqualTo(BorrowStatus.REJECTED);
+	}
+
+	@Test
+	void secondApprovalForTheSameBookConflicts() {
+		BorrowRequest first = request("borrow-a@example.com", BorrowStatus.PENDING);
+		BorrowRequest second = request("borrow-b@example.com", BorrowStatus.PENDING);
+		borrowService.approve(first.getId(), lender);
+
+		assertThatThrownBy(() -> borrowService.approve(second.getId(), lender))
+				.isInstanceOf(BorrowStateConflictException.class);
+		assertThat(status(first)).isEqualTo(BorrowStatus.APPROVED);
+		assertThat(status(second)).isEqualTo(BorrowStatus.REJECTED);
+	}
+
+	@Test
+	void concurrentApprovalsHandOutOneCopy() throws Exception {
+		BorrowRequest first = request("borrow-a@example.com", BorrowStatus.PENDING);
+		BorrowRequest second = request("borrow-b@example.com", BorrowStatus.PENDING);
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> approvals = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+			for (BorrowRequest request : List.of(first, second)) {
+				approvals.add(executor.submit(() -> {
+					start.await();
+					return borrowService.approve(request.getId(), lender);
+				}));
+			}
+			start.countDown();
+		}
+
+		int succeeded = 0;
+		int conflicted = 0;
+		for (Future<?> approval : approvals) {
+			try {
+				approval.get();
+				succeeded++;
+			} catch (Exception e) {
+				assertThat(e).hasCauseInstanceOf(BorrowStateConflictException.class);
+				conflicted++;
+			}
+		}
+		assertThat(succeeded).isEqualTo(1);
+		assertThat(conflicted).isEqualTo(1);
+		assertThat(List.of(status(first), status(second)))
+				.containsExactlyInAnyOrder(BorrowStatus.APPROVED, BorrowStatus.REJECTED);
+		assertThat(bookRepository.findById(book.getId()).orElseThrow().getIsAvailable()).isFalse();
+	}
+
+	@Test
+	void transitionsFromTheWrongStateConflict() {
+		BorrowRequest request = request("borrow-a@example.com", BorrowStatus.PENDING);
+		borrowService.approve(request.getId(), lender);
+
+		assertThatThrownBy(() -> borrowService.reject(request.getId(), lender))
+				.isInstanceOf(BorrowStateConflictException.class);
+
+		borrowService.completeReturn(request.getId(), lender);
+		assertThatThrownBy(() -> borrowService.completeReturn(request.getId(), lender))
+				.isInstanceOf(BorrowStateConflictException.class);
+		assertThat(status(request)).isEqualTo(BorrowStatus.RETURNED);
+		assertThat(bookRepository.findById(book.getId()).orElseThrow().getIsAvailable()).isTrue();
+	}
+
+	@Test
+	void updateAvailabilityOnlyFlipsTheExpectedValue() {
+		assertThat(flipAvailability(true, false)).isEqualTo(1);
+		assertThat(flipAvailability(true, false)).isZero();
+		assertThat(flipAvailability(false, true)).isEqualTo(1);
+	}
+
+	private BorrowRequest request(String borrowerEmail, BorrowStatus status) {
+		BorrowRequest request = borrowRequestRepository.save(BorrowRequest.builder()
+				.book(book)
+				.lender(owner)
+				.borrower(user(borrowerEmail))
+				.status(status)
+				.requestDate(LocalDateTime.now())
+				.dueDate(LocalDateTime.now().plusDays(14))
+				.build());
+		requests.add(request);
+		return request;
+	}
+
+	private User user(String email) {
+		User user = userRepository.save(User.builder()
+				.name(email.substring(0, email.indexOf('@')))
+				.email(email)
+				.accountLocked(false)
+				.enabled(true)
+				.roles(List.of())
+				.build());
+		users.add(user);
+		return user;
+	}
+
+	private int flipAvailability(boolean expected, boolean available) {
+		return transactionTemplate.execute(status -> bookRepository.updateAvailability(book.getId(), expected, available));
+	}
+
+	private BorrowStatus status(BorrowRequest request) {
+		return borrowRequestRepository.findById(request.getId()).orElseThrow().getStatus();
+	}
+
+	private List<String> queued(EmailTemplatename template) {
+		return outboxRepository.findAll().stream()
+				.filter(message -> message.getTemplate() == template)
+				.map(EmailOutboxMessage::getRecipient)
+				.filter(recipient -> recipient.startsWith("borrow-"))
+				.toList();
+	}
+}
@@ -0,0 +1,118 @@
+package com.srinjaydg.enderbrary.book.services;
+
+import com.srinjaydg.enderbrary.book.enums.BorrowStatus;
+import com.srinjaydg.enderbrary.book.models.Book;
+import com.srinjaydg.enderbrary.book.models.BorrowRequest;
+import com.srinjaydg.enderbrary.book.repositories.BookRepository;
+import com.srinjaydg.enderbrary.book.repositories.BorrowRequestRepository;
+import com.srinjaydg.enderbrary.email.EmailOutboxService;
+import com.srinjaydg.enderbrary.email.EmailTemplatename;
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import com.srinjaydg.enderbrary.email.repositories.EmailOutboxRepository;
+import com.srinjaydg.enderbrary.email.templates.DueDateReminderEmail;
+import com.srinjaydg.enderbrary.user.models.User;
+import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database=h2",
+		"application.mailing.outbox.initial-delay=PT1H"
+})
+class DueDateReminderServiceTests {
+
+	private static final int BORROWED = 20;
+	private static final String LONGEST = "x".repeat(255);
+
+	@Autowired
+	private DueDateReminderService reminderService;
+
+	@Autowired
+	private EmailOutboxService outboxService;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@Autowired
+	private BorrowRequestRepository borrowRequestRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final List<User> users = new ArrayList<>();
+	private final List<Book> books = new ArrayList<>();
+	private final List<BorrowRequest> requests = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		outboxRepository.deleteAll(outboxRepository.findAll().stream()
+				.filter(message -> message.getRecipient().startsWith("digest-"))
+				.toList());
+		borrowRequestRepository.deleteAll(requests);
+		bookRepository.deleteAll(books);
+		userRepository.deleteAll(users);
+	}
+
+	@Test
+	void worstCaseDigestIsQueuedAndMarksTheRequestsReminded() {
+		LocalDateTime now = LocalDateTime.now();
+		User lender = user(LONGEST, "digest-lender@example.com");
+		User borrower = user(LONGEST, "digest-borrower@example.com");
+		for (int i = 0; i < BORROWED; i++) {
+			Book book = bookRepository.save(Book.builder()
+					.title(LONGEST.substring(2) + String.format("%02d", i))
+					.author("Author")
+					.isAvailable(false)
+					.isArchived(false)
+					.owner(lender)
+					.build());
+			books.add(book);
+			requests.add(borrowRequestRepository.save(BorrowRequest.builder()
+					.book(book)
+					.lender(lender)
+					.borrower(borrower)
+					.status(BorrowStatus.APPROVED)
+					.requestDate(now.minusDays(20))
+					.dueDate(now.minusDays(1))
+					.build()));
+		}
+
+		reminderService.processDue(now);
+
+		List<EmailOutboxMessage> queued = outboxRepository.findAll().stream()
+				.filter(message -> message.getRecipient().equals(borrower.getEmail()))
+				.toList();
+		assertThat(queued).singleElement().satisfies(message -> {
+			assertThat(message.getTemplate()).isEqualTo(EmailTemplatename.DUE_DATE_REMINDER);
+			assertThat(message.getPayload().length()).isGreaterThan(4000);
+			DueDateReminderEmail digest = (DueDateReminderEmail) outboxService.readModel(message);
+			assertThat(digest.items()).hasSize(15)
+					.allSatisfy(item -> assertThat(item.lenderName()).isEqualTo(LONGEST));
+			assertThat(digest.moreCount()).isEqualTo(BORROWED - 15);
+		});
+		assertThat(borrowRequestRepository.findAllById(requests.stream().map(BorrowRequest::getId).toList()))
+				.allSatisfy(request -> assertThat(request.getReminderSentAt()).isNotNull());
+	}
+
+	private User user(String name, String email) {
+		User user = userRepository.save(User.builder()
+				.name(name)
+				.email(email)
+				.accountLocked(false)
+				.enabled(true)
+				.build());
+		users.add(user);
+		return user;
+	}
+}
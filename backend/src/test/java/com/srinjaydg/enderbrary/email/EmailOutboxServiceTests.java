@@ -0,0 +1,144 @@
+package com.srinjaydg.enderbrary.email;
+
+import com.srinjaydg.enderbrary.email.enums.OutboxStatus;
+import com.srinjaydg.enderbrary.email.models.EmailOutboxMessage;
+import com.srinjaydg.enderbrary.email.repositories.EmailOutboxRepository;
+import com.srinjaydg.enderbrary.email.templates.ActivationEmail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database=h2",
+		"application.mailing.outbox.initial-delay=PT1H"
+})
+class EmailOutboxServiceTests {
+
+	private static final Duration LEASE = Duration.ofMinutes(5);
+	private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+	private static final int MAX_ATTEMPTS = 8;
+
+	@Autowired
+	private EmailOutboxService outboxService;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@BeforeEach
+	@AfterEach
+	void clearOutbox() {
+		outboxRepository.deleteAll();
+	}
+
+	@Test
+	void claimLeasesDueMessagesSoTheyAreNotClaimedTwice() {
+		enqueue("outbox-a@example.com");
+		enqueue("outbox-b@example.com");
+
+		LocalDateTime claimedAt = LocalDateTime.now();
+		List<EmailOutboxMessage> claimed = outboxService.claimDue(10);
+
+		assertThat(claimed).hasSize(2).allSatisfy(message -> {
+			assertThat(message.getStatus()).isEqualTo(OutboxStatus.SENDING);
+			assertThat(message.getNextAttemptAt()).isCloseTo(claimedAt.plus(LEASE), within(5, ChronoUnit.SECONDS));
+		});
+		assertThat(outboxService.claimDue(10)).isEmpty();
+	}
+
+	@Test
+	void claimRespectsTheLimit() {
+		enqueue("outbox-a@example.com");
+		enqueue("outbox-b@example.com");
+
+		assertThat(outboxService.claimDue(1)).hasSize(1);
+		assertThat(outboxService.claimDue(1)).hasSize(1);
+		assertThat(outboxService.claimDue(1)).isEmpty();
+	}
+
+	@Test
+	void anExpiredLeaseMakesTheMessageDueAgain() {
+		UUID id = enqueue("outbox-a@example.com");
+		outboxService.claimDue(10);
+
+		EmailOutboxMessage stuck = outboxRepository.findById(id).orElseThrow();
+		stuck.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		outboxRepository.save(stuck);
+
+		assertThat(outboxService.claimDue(10)).extracting(EmailOutboxMessage::getId).containsExactly(id);
+	}
+
+	@Test
+	void failuresBackOffExponentiallyUntilTheLastAttempt() {
+		UUID id = enqueue("outbox-a@example.com");
+
+		for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+			outboxService.claimDue(10);
+			LocalDateTime failedAt = LocalDateTime.now();
+			outboxService.markFailed(id, new IllegalStateException("SMTP down " + attempt));
+
+			// 30s doubling stays under the one-hour cap for the seven retries
+			Duration expected = INITIAL_BACKOFF.multipliedBy(1L << (attempt - 1));
+			EmailOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+			assertThat(message.getStatus()).isEqualTo(OutboxStatus.PENDING);
+			assertThat(message.getAttempts()).isEqualTo(attempt);
+			assertThat(message.getLastError()).isEqualTo("SMTP down " + attempt);
+			assertThat(message.getNextAttemptAt()).isCloseTo(failedAt.plus(expected), within(5, ChronoUnit.SECONDS));
+
+			// Not due until the backoff has passed
+			assertThat(outboxService.claimDue(10)).isEmpty();
+			message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+			outboxRepository.save(message);
+		}
+	}
+
+	@Test
+	void theLastAllowedFailureDeadLettersTheMessage() {
+		UUID id = enqueue("outbox-a@example.com");
+
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			outboxService.markFailed(id, new IllegalStateException("Mailbox unavailable"));
+		}
+
+		EmailOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+		assertThat(message.getStatus()).isEqualTo(OutboxStatus.DEAD);
+		assertThat(message.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+		message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		outboxRepository.save(message);
+		assertThat(outboxService.claimDue(10)).isEmpty();
+	}
+
+	@Test
+	void sentMessagesAreNeverClaimedAgain() {
+		UUID id = enqueue("outbox-a@example.com");
+		outboxService.claimDue(10);
+
+		outboxService.markSent(id);
+
+		EmailOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+		assertThat(message.getStatus()).isEqualTo(OutboxStatus.SENT);
+		assertThat(message.getSentAt()).isNotNull();
+		message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		outboxRepository.save(message);
+		assertThat(outboxService.claimDue(10)).isEmpty();
+	}
+
+	private UUID enqueue(String to) {
+		outboxService.enqueue(new ActivationEmail("Reader", "http://localhost:3000/activate", "123456", "Activate your account"), to);
+		return outboxRepository.findAll().stream()
+				.filter(message -> message.getRecipient().equals(to))
+				.findFirst()
+				.orElseThrow()
+				.getId();
+	}
+}
@@ -0,0 +1,95 @@
+package com.srinjaydg.enderbrary.security;
+
+import com.srinjaydg.enderbrary.user.models.User;
+import com.srinjaydg.enderbrary.user.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.jpa.database=h2",
+		"application.mailing.outbox.initial-delay=PT1H"
+})
+class PrincipalCacheTests {
+
+	private static final String EMAIL = "principal-cache@example.com";
+
+	@Autowired
+	private PrincipalCache principalCache;
+
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private User user;
+
+	@BeforeEach
+	void seed() {
+		user = userRepository.save(User.builder()
+				.name("Reader")
+				.email(EMAIL)
+				.accountLocked(false)
+				.enabled(true)
+				.roles(List.of())
+				.build());
+		principalCache.evict(EMAIL);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		userRepository.deleteById(user.getId());
+	}
+
+	@Test
+	void cachesADetachedSnapshotUntilTheUserChanges() {
+		AuthenticatedUser first = load();
+
+		assertThat(load()).isSameAs(first);
+		assertThat(loads).hasValue(1);
+		assertThat(first.id()).isEqualTo(user.getId());
+		assertThat(first.isAccountNonLocked()).isTrue();
+	}
+
+	@Test
+	void lockingTheAccountEvictsTheCachedPrincipal() {
+		load();
+
+		User stored = userRepository.findById(user.getId()).orElseThrow();
+		stored.setAccountLocked(true);
+		userRepository.save(stored);
+
+		AuthenticatedUser reloaded = load();
+		assertThat(loads).hasValue(2);
+		assertThat(reloaded.isAccountNonLocked()).isFalse();
+	}
+
+	@Test
+	void disablingTheAccountEvictsTheCachedPrincipal() {
+		load();
+
+		User stored = userRepository.findById(user.getId()).orElseThrow();
+		stored.setEnabled(false);
+		userRepository.save(stored);
+
+		assertThat(load().isEnabled()).isFalse();
+		assertThat(loads).hasValue(2);
+	}
+
+	private AuthenticatedUser load() {
+		return principalCache.get(EMAIL, email -> {
+			loads.incrementAndGet();
+			return userDetailsService.loadPrincipal(email);
+		});
+	}
+}
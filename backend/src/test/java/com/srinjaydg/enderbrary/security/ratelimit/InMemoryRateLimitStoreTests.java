@@ -0,0 +1,81 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTests {
+
+	private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000, Duration.ofMinutes(10));
+
+	@Test
+	void fullBucketAllowsCapacityThenReportsTheWait() {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(3, Duration.ofMinutes(3));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(store.tryConsume("login:ip:1", limit)).isZero();
+		}
+		long waitNanos = store.tryConsume("login:ip:1", limit);
+
+		// One token comes back every refillPeriod / capacity
+		assertThat(waitNanos).isPositive().isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(1));
+		assertThat(waitNanos).isGreaterThan(TimeUnit.SECONDS.toNanos(55));
+	}
+
+	@Test
+	void keysHaveTheirOwnBuckets() {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, Duration.ofHours(1));
+
+		assertThat(store.tryConsume("login:ip:1", limit)).isZero();
+		assertThat(store.tryConsume("login:ip:1", limit)).isPositive();
+		assertThat(store.tryConsume("login:ip:2", limit)).isZero();
+		assertThat(store.tryConsume("register:ip:1", limit)).isZero();
+	}
+
+	@Test
+	void bucketRefillsOverTime() throws InterruptedException {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(2, Duration.ofMillis(200));
+		store.tryConsume("activate:ip:1", limit);
+		store.tryConsume("activate:ip:1", limit);
+		assertThat(store.tryConsume("activate:ip:1", limit)).isPositive();
+
+		Thread.sleep(150);
+
+		assertThat(store.tryConsume("activate:ip:1", limit)).isZero();
+	}
+
+	@Test
+	void concurrentCallersNeverGetMoreThanTheCapacity() throws Exception {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(50, Duration.ofHours(1));
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> workers = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int t = 0; t < 8; t++) {
+				workers.add(executor.submit(() -> {
+					start.await();
+					int allowed = 0;
+					for (int i = 0; i < 100; i++) {
+						if (store.tryConsume("login:account:a@example.com", limit) == 0) allowed++;
+					}
+					return allowed;
+				}));
+			}
+			start.countDown();
+		}
+
+		int allowed = 0;
+		for (Future<Integer> worker : workers) {
+			allowed += worker.get();
+		}
+		assertThat(allowed).isEqualTo(50);
+	}
+}
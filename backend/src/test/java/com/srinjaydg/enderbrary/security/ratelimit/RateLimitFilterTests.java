@@ -0,0 +1,205 @@
+package com.srinjaydg.enderbrary.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+	private static final RateLimitProperties.Limit TWO_PER_HOUR = new RateLimitProperties.Limit(2, Duration.ofHours(1));
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RateLimitFilter filter = new RateLimitFilter(
+			new RateLimitProperties(true, RateLimitProperties.Store.MEMORY, 1000, List.of(
+					new RateLimitProperties.Route("login", "POST", "/api/v1/auth/login", TWO_PER_HOUR, null),
+					new RateLimitProperties.Route("register", "POST", "/api/v1/auth/register", null, TWO_PER_HOUR),
+					new RateLimitProperties.Route("send-verification-email", "GET", "/api/v1/users/send-verification-email", null, TWO_PER_HOUR)
+			)),
+			new InMemoryRateLimitStore(1000, Duration.ofHours(1)),
+			new ObjectMapper(),
+			meterRegistry
+	);
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void overTheIpBudgetGets429WithRetryAfter() throws Exception {
+		assertThat(send(post("/api/v1/auth/login", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+		assertThat(send(post("/api/v1/auth/login", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse rejected = send(post("/api/v1/auth/login", "10.0.0.1", null));
+
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 1800L);
+		assertThat(rejected.getContentAsString()).contains("Too Many Requests");
+		assertThat(meterRegistry.counter("enderbrary.ratelimit.rejected", "route", "login", "key", "ip").count()).isEqualTo(1);
+		assertThat(send(post("/api/v1/auth/login", "10.0.0.2", null)).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void unmatchedMethodsAndPathsPassThrough() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			MockHttpServletRequest get = post("/api/v1/auth/login", "10.0.0.1", null);
+			get.setMethod("GET");
+			assertThat(send(get).getStatus()).isEqualTo(200);
+			assertThat(send(post("/api/v1/books", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+		}
+	}
+
+	@Test
+	void accountBudgetKeysOnTheEmailInTheBodyAcrossAddresses() throws Exception {
+		assertThat(send(post("/api/v1/auth/register", "10.0.0.1", "{\"email\":\"Reader@Example.com\"}")).getStatus()).isEqualTo(200);
+		assertThat(send(post("/api/v1/auth/register", "10.0.0.2", "{\"email\":\"reader@example.com \"}")).getStatus()).isEqualTo(200);
+
+		assertThat(send(post("/api/v1/auth/register", "10.0.0.3", "{\"email\":\"reader@example.com\"}")).getStatus()).isEqualTo(429);
+		assertThat(send(post("/api/v1/auth/register", "10.0.0.3", "{\"email\":\"other@example.com\"}")).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void bufferedBodyIsReplayedToTheController() throws Exception {
+		String body = "{\"email\":\"reader@example.com\",\"name\":\"" + "x".repeat(10_000) + "\"}";
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(post("/api/v1/auth/register", "10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+		assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), UTF_8)).isEqualTo(body);
+	}
+
+	@Test
+	void nonBlockingReadersGetTheBufferedBodyBeforeTheEnd() throws Exception {
+		String body = "{\"email\":\"reader@example.com\"}";
+		ServletInputStream original = new NonBlockingInputStream(body);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/register") {
+			@Override
+			public ServletInputStream getInputStream() {
+				return original;
+			}
+		};
+		request.setContentType("application/json");
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		ServletInputStream replay = chain.getRequest().getInputStream();
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		List<String> events = new ArrayList<>();
+		replay.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				events.add("data");
+				byte[] buffer = new byte[8];
+				int read;
+				while (replay.isReady() && (read = replay.read(buffer)) != -1) {
+					received.write(buffer, 0, read);
+				}
+			}
+
+			@Override
+			public void onAllDataRead() {
+				events.add("end");
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				events.add("error");
+			}
+		});
+
+		assertThat(events).containsExactly("data", "end");
+		assertThat(received.toString(UTF_8)).isEqualTo(body);
+	}
+
+	@Test
+	void signedInUsersAreLimitedByAccount() throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(
+				UsernamePasswordAuthenticationToken.authenticated("reader@example.com", null, List.of()));
+
+		for (int i = 0; i < 2; i++) {
+			assertThat(send(get("/api/v1/users/send-verification-email", "10.0.0." + i)).getStatus()).isEqualTo(200);
+		}
+		assertThat(send(get("/api/v1/users/send-verification-email", "10.0.0.9")).getStatus()).isEqualTo(429);
+	}
+
+	private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest post(String path, String remoteAddr, String json) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRemoteAddr(remoteAddr);
+		if (json != null) {
+			request.setContentType("application/json");
+			request.setContent(json.getBytes(UTF_8));
+		}
+		return request;
+	}
+
+	private static MockHttpServletRequest get(String path, String remoteAddr) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setRemoteAddr(remoteAddr);
+		return request;
+	}
+
+	/**
+	 * A container stream in non-blocking mode: once the filter has read the whole body it reports the end at once.
+	 */
+	private static final class NonBlockingInputStream extends ServletInputStream {
+
+		private final ByteArrayInputStream delegate;
+
+		NonBlockingInputStream(String body) {
+			this.delegate = new ByteArrayInputStream(body.getBytes(UTF_8));
+		}
+
+		@Override
+		public int read() {
+			return delegate.read();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return delegate.available() == 0;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			try {
+				if (!isFinished()) {
+					readListener.onDataAvailable();
+				}
+				readListener.onAllDataRead();
+			} catch (IOException e) {
+				readListener.onError(e);
+			}
+		}
+	}
+}
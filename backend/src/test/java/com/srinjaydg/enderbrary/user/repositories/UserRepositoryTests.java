@@ -0,0 +1,82 @@
+package com.srinjaydg.enderbrary.user.repositories;
+
+import com.srinjaydg.enderbrary.book.models.Book;
+import com.srinjaydg.enderbrary.user.dto.UserSummaryResponse;
+import com.srinjaydg.enderbrary.user.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.database=h2")
+class UserRepositoryTests {
+
+	private static final int USERS = 7;
+	private static final int PAGE_SIZE = 3;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private final List<UUID> seeded = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		for (int u = 0; u < USERS; u++) {
+			User user = entityManager.persist(User.builder()
+					.name("Same Name")
+					.email("summary" + u + "@example.com")
+					.accountLocked(false)
+					.enabled(true)
+					.build());
+			entityManager.persist(Book.builder()
+					.title("Title " + u)
+					.author("Author")
+					.isAvailable(true)
+					.isArchived(false)
+					.owner(user)
+					.build());
+			seeded.add(user.getId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void summaryPagesWalkEveryUserOnceInIdOrder() {
+		assertPagesCoverEveryUserOnce(userRepository::findSummaries);
+	}
+
+	@Test
+	void ownerSummaryPagesWalkEveryOwnerOnceInIdOrder() {
+		assertPagesCoverEveryUserOnce(userRepository::findSummariesWithAtLeastOneBook);
+	}
+
+	private void assertPagesCoverEveryUserOnce(Function<Pageable, Page<UserSummaryResponse>> finder) {
+		List<UUID> walked = new ArrayList<>();
+		Page<UserSummaryResponse> page = finder.apply(PageRequest.of(0, PAGE_SIZE));
+		walked.addAll(page.map(UserSummaryResponse::id).getContent());
+		while (page.hasNext()) {
+			page = finder.apply(page.nextPageable());
+			walked.addAll(page.map(UserSummaryResponse::id).getContent());
+		}
+
+		assertThat(walked).doesNotHaveDuplicates()
+				.containsAll(seeded)
+				.isSortedAccordingTo(Comparator.comparing(UUID::toString));
+	}
+}